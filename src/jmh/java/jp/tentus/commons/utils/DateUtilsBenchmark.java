@@ -0,0 +1,93 @@
+package jp.tentus.commons.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DateUtils のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilsBenchmark {
+
+    private int year = 2016;
+
+    private int month = 2;
+
+    private int validDay = 29;
+
+    private int invalidDay = 30;
+
+    private int[] years = new int[1024];
+
+    private int[] months = new int[1024];
+
+    private int[] days = new int[1024];
+
+    private boolean[] results = new boolean[1024];
+
+    private DateUtils.CachedClock cachedClock;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < this.years.length; i++) {
+            this.years[i] = 1990 + (i % 40);
+            this.months[i] = 1 + (i % 12);
+            this.days[i] = 1 + (i % 31);
+        }
+
+        this.cachedClock = new DateUtils.CachedClock(10);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.cachedClock.close();
+    }
+
+    @Benchmark
+    public boolean validateDateValid() {
+        return DateUtils.validateDate(this.year, this.month, this.validDay);
+    }
+
+    @Benchmark
+    public boolean validateDateInvalid() {
+        return DateUtils.validateDate(this.year, this.month, this.invalidDay);
+    }
+
+    @Benchmark
+    public int validateDates() {
+        return DateUtils.validateDates(this.years, this.months, this.days, this.results);
+    }
+
+    @Benchmark
+    public long toEpochDay() {
+        return DateUtils.toEpochDay(this.year, this.month, this.validDay);
+    }
+
+    @Benchmark
+    public boolean isLeapYear() {
+        return DateUtils.isLeapYear(this.year);
+    }
+
+    @Benchmark
+    public Date now() {
+        return DateUtils.now();
+    }
+
+    @Benchmark
+    public long currentTimeMillis() {
+        return DateUtils.currentTimeMillis();
+    }
+
+    @Benchmark
+    public long cachedClock() {
+        return this.cachedClock.currentTimeMillis();
+    }
+
+}
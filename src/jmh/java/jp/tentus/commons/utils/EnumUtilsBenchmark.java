@@ -0,0 +1,37 @@
+package jp.tentus.commons.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EnumUtils のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumUtilsBenchmark {
+
+    private TimeUnit value = TimeUnit.MILLISECONDS;
+
+    private String name = "milliseconds";
+
+    @Benchmark
+    public String toStringValue() {
+        return EnumUtils.toString(this.value);
+    }
+
+    @Benchmark
+    public TimeUnit from() {
+        return EnumUtils.from(TimeUnit.class, this.name);
+    }
+
+    @Benchmark
+    public TimeUnit valueOfUpperCase() {
+        return TimeUnit.valueOf(StringUtils.toUpperCase(this.name));
+    }
+
+}
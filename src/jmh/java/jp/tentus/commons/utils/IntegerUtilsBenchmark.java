@@ -0,0 +1,79 @@
+package jp.tentus.commons.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IntegerUtils のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntegerUtilsBenchmark {
+
+    private String valid = "-2147483647";
+
+    private String invalid = "N/A";
+
+    private String empty = "";
+
+    private StringBuilder record = new StringBuilder("id=2147483647;");
+
+    private List<Integer> list = new ArrayList<>();
+
+    private IntegerUtils.Column column;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < 4096; i++) {
+            this.list.add((i % 10 == 0) ? null : i * 31);
+        }
+
+        this.column = IntegerUtils.Column.from(this.list);
+    }
+
+    @Benchmark
+    public int parseIntValid() {
+        return IntegerUtils.parseInt(this.valid, 0);
+    }
+
+    @Benchmark
+    public int parseIntInvalid() {
+        return IntegerUtils.parseInt(this.invalid, 0);
+    }
+
+    @Benchmark
+    public int parseIntEmpty() {
+        return IntegerUtils.parseInt(this.empty, 0);
+    }
+
+    @Benchmark
+    public int parseIntRange() {
+        return IntegerUtils.parseInt(this.record, 3, this.record.length() - 1, 0);
+    }
+
+    @Benchmark
+    public long sumList() {
+        long sum = 0L;
+
+        for (Integer value : this.list) {
+            if (value != null) {
+                sum += value;
+            }
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public long sumColumn() {
+        return this.column.sum();
+    }
+
+}
@@ -0,0 +1,99 @@
+package jp.tentus.commons.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LocalDateTimeUtils のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalDateTimeUtilsBenchmark {
+
+    private ZonedDateTime zonedDateTime = ZonedDateTime.of(2017, 10, 12, 18, 44, 36, 0, ZoneId.of("Asia/Tokyo"));
+
+    private LocalDateTime localDateTime = LocalDateTime.of(2017, 10, 12, 18, 44, 36);
+
+    private String text = "2017-10-12T18:44:36.123";
+
+    private StringBuilder builder = new StringBuilder(64);
+
+    private DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private ZoneId zoneId = ZoneId.of("America/New_York");
+
+    private LocalDateTime[] column = new LocalDateTime[4096];
+
+    private long[] epochMillis;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < this.column.length; i++) {
+            this.column[i] = this.localDateTime.plusMinutes(i * 7L);
+        }
+
+        this.epochMillis = LocalDateTimeUtils.toEpochMillis(this.column, this.zoneId, 0L);
+    }
+
+    @Benchmark
+    public LocalDateTime from() {
+        return LocalDateTimeUtils.from(this.zonedDateTime);
+    }
+
+    @Benchmark
+    public LocalDateTime parse() {
+        return LocalDateTimeUtils.parse(this.text);
+    }
+
+    @Benchmark
+    public LocalDateTime parseFormatter() {
+        return LocalDateTime.parse(this.text, this.formatter);
+    }
+
+    @Benchmark
+    public StringBuilder formatIso() {
+        this.builder.setLength(0);
+
+        return LocalDateTimeUtils.formatIso(this.builder, this.localDateTime);
+    }
+
+    @Benchmark
+    public StringBuilder formatFormatter() {
+        this.builder.setLength(0);
+
+        this.formatter.formatTo(this.localDateTime, this.builder);
+
+        return this.builder;
+    }
+
+    @Benchmark
+    public long[] toEpochMillis() {
+        return LocalDateTimeUtils.toEpochMillis(this.column, this.zoneId, 0L);
+    }
+
+    @Benchmark
+    public long[] toEpochMillisZonedDateTime() {
+        long[] results = new long[this.column.length];
+
+        for (int i = 0; i < results.length; i++) {
+            results[i] = ZonedDateTime.of(this.column[i], this.zoneId).toInstant().toEpochMilli();
+        }
+
+        return results;
+    }
+
+    @Benchmark
+    public LocalDateTime[] fromEpochMillis() {
+        return LocalDateTimeUtils.fromEpochMillis(this.epochMillis, this.zoneId);
+    }
+
+}
@@ -0,0 +1,46 @@
+package jp.tentus.commons.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LongUtils のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongUtilsBenchmark {
+
+    private String valid = "-9223372036854775807";
+
+    private String invalid = "N/A";
+
+    private String empty = "";
+
+    private StringBuilder record = new StringBuilder("id=9223372036854775807;");
+
+    @Benchmark
+    public long parseLongValid() {
+        return LongUtils.parseLong(this.valid, 0);
+    }
+
+    @Benchmark
+    public long parseLongInvalid() {
+        return LongUtils.parseLong(this.invalid, 0);
+    }
+
+    @Benchmark
+    public long parseLongEmpty() {
+        return LongUtils.parseLong(this.empty, 0);
+    }
+
+    @Benchmark
+    public long parseLongRange() {
+        return LongUtils.parseLong(this.record, 3, this.record.length() - 1, 0);
+    }
+
+}
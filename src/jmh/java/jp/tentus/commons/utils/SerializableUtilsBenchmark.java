@@ -0,0 +1,122 @@
+package jp.tentus.commons.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SerializableUtils のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializableUtilsBenchmark {
+
+    private byte[] small;
+
+    private byte[] large;
+
+    private Session session;
+
+    private ArrayList<Session> sessions;
+
+    private SerializableUtils.Codec codec = SerializableUtils.codec().register(1, Session.class).build();
+
+    private byte[] codecSmall;
+
+    @Setup
+    public void setup() throws IOException {
+        this.session = new Session("a3f8c2", 12345L, "user");
+        this.small = serialize(this.session);
+
+        this.sessions = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            this.sessions.add(new Session("session-" + i, i, "user"));
+        }
+
+        this.large = serialize(this.sessions);
+        this.codecSmall = this.codec.to(this.session);
+    }
+
+    @Benchmark
+    public Session fromSmall() throws IOException {
+        return SerializableUtils.from(this.small);
+    }
+
+    @Benchmark
+    public ArrayList<Session> fromLarge() throws IOException {
+        return SerializableUtils.from(this.large);
+    }
+
+    @Benchmark
+    public Session fromOrNullBroken() {
+        return SerializableUtils.fromOrNull(new byte[]{1, 2, 3});
+    }
+
+    @Benchmark
+    public byte[] toSmall() throws IOException {
+        return SerializableUtils.to(this.session);
+    }
+
+    @Benchmark
+    public byte[] toLarge() throws IOException {
+        return SerializableUtils.to(this.sessions);
+    }
+
+    @Benchmark
+    public byte[] serializeSmall() throws IOException {
+        return serialize(this.session);
+    }
+
+    @Benchmark
+    public Session codecFromSmall() throws IOException {
+        return this.codec.from(this.codecSmall);
+    }
+
+    @Benchmark
+    public byte[] codecToSmall() throws IOException {
+        return this.codec.to(this.session);
+    }
+
+    private static byte[] serialize(Serializable value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    public static class Session implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String id;
+
+        private long userId;
+
+        private String role;
+
+        public Session() {
+
+        }
+
+        public Session(String id, long userId, String role) {
+            this.id = id;
+            this.userId = userId;
+            this.role = role;
+        }
+
+    }
+
+}
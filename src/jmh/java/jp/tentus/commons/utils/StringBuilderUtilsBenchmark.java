@@ -0,0 +1,93 @@
+package jp.tentus.commons.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StringBuilderUtils のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringBuilderUtilsBenchmark {
+
+    private StringBuilder record;
+
+    private StringBuilder payload;
+
+    private StringBuilderUtils.Separator boundary = StringBuilderUtils.Separator.of("\r\n--boundary");
+
+    private StringBuilderUtils.SplitCursor cursor = new StringBuilderUtils.SplitCursor();
+
+    @Setup
+    public void setup() {
+        this.record = new StringBuilder("2017-10-12 18:44:36|INFO|jp.tentus.commons|12345|GET|/api/v1/items|200|35");
+
+        StringBuilder payload = new StringBuilder();
+
+        for (int i = 0; i < 16; i++) {
+            payload.append("Content-Type: text/plain\r\n\r\n");
+
+            for (int j = 0; j < 64; j++) {
+                payload.append("0123456789abcdef");
+            }
+
+            payload.append("\r\n--boundary");
+        }
+
+        this.payload = payload;
+    }
+
+    @Benchmark
+    public List<String> splitNewArrayListChar() {
+        return StringBuilderUtils.splitNewArrayList(this.record, '|');
+    }
+
+    @Benchmark
+    public List<String> splitNewArrayListString() {
+        return StringBuilderUtils.splitNewArrayList(this.payload, "\r\n--boundary");
+    }
+
+    @Benchmark
+    public List<String> splitNewArrayListSeparator() {
+        return StringBuilderUtils.splitNewArrayList(this.payload, this.boundary);
+    }
+
+    @Benchmark
+    public int splitCursorChar() {
+        StringBuilderUtils.SplitCursor cursor = this.cursor.reset(this.record, '|');
+        int total = 0;
+
+        while (cursor.next()) {
+            total += cursor.length();
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public StringBuilder join() {
+        return StringBuilderUtils.join("jp", ".", "tentus", ".", "commons", ".", "utils");
+    }
+
+    @Benchmark
+    public StringBuilder joinWith() {
+        return StringBuilderUtils.joinWith(".", "jp", "tentus", "commons", "utils");
+    }
+
+    @Benchmark
+    public String newBuilder() {
+        return new StringBuilder().append("jp").append('.').append("tentus").toString();
+    }
+
+    @Benchmark
+    public String acquire() {
+        return StringBuilderUtils.toStringAndRelease(StringBuilderUtils.acquire().append("jp").append('.').append("tentus"));
+    }
+
+}
@@ -0,0 +1,65 @@
+package jp.tentus.commons.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StringUtils のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilsBenchmark {
+
+    private String blank = "        \t  ";
+
+    private String notBlank = "   user_id   ";
+
+    private String lower = "user_account_status";
+
+    private String mixed = "User_Account_Status";
+
+    private StringBuilder builder = new StringBuilder("user_account_status");
+
+    private StringUtils.Pool pool = new StringUtils.Pool(1024);
+
+    @Benchmark
+    public boolean isBlankBlank() {
+        return StringUtils.isBlank(this.blank);
+    }
+
+    @Benchmark
+    public boolean isBlankNotBlank() {
+        return StringUtils.isBlank(this.notBlank);
+    }
+
+    @Benchmark
+    public String toLowerCaseLower() {
+        return StringUtils.toLowerCase(this.lower);
+    }
+
+    @Benchmark
+    public String toLowerCaseMixed() {
+        return StringUtils.toLowerCase(this.mixed);
+    }
+
+    @Benchmark
+    public String toUpperCaseMixed() {
+        return StringUtils.toUpperCase(this.mixed);
+    }
+
+    @Benchmark
+    public String from() {
+        return StringUtils.from(this.builder);
+    }
+
+    @Benchmark
+    public String fromPool() {
+        return StringUtils.from(this.builder, null, this.pool);
+    }
+
+}
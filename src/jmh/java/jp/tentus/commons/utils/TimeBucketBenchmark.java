@@ -0,0 +1,46 @@
+package jp.tentus.commons.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TimeBucket のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeBucketBenchmark {
+
+    private long epochMilli = 1507801476123L;
+
+    private ZoneId zoneId = ZoneId.of("America/New_York");
+
+    @Benchmark
+    public long hour() {
+        return TimeBucket.HOUR.startOf(this.epochMilli, this.zoneId);
+    }
+
+    @Benchmark
+    public long day() {
+        return TimeBucket.DAY.startOf(this.epochMilli, this.zoneId);
+    }
+
+    @Benchmark
+    public long week() {
+        return TimeBucket.WEEK.startOf(this.epochMilli, this.zoneId);
+    }
+
+    @Benchmark
+    public long dayTruncatedTo() {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(this.epochMilli), this.zoneId).truncatedTo(ChronoUnit.DAYS).toInstant().toEpochMilli();
+    }
+
+}
@@ -0,0 +1,36 @@
+package jp.tentus.commons.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TypeUtils のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeUtilsBenchmark {
+
+    @Benchmark
+    public Object make() {
+        return TypeUtils.of(Sample.class).index(1).make();
+    }
+
+    @Benchmark
+    public Object newInstance() {
+        return new StringBuilder();
+    }
+
+    public static class Base<T1, T2> {
+
+    }
+
+    public static class Sample extends Base<String, StringBuilder> {
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package jp.tentus.commons.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ZonedDateTimeUtils のベンチマーク。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZonedDateTimeUtilsBenchmark {
+
+    private LocalDateTime localDateTime = LocalDateTime.of(2017, 10, 12, 18, 44, 36);
+
+    private LocalDate localDate = LocalDate.of(2017, 10, 12);
+
+    private ZoneId zoneId = ZoneId.of("America/New_York");
+
+    @Benchmark
+    public ZonedDateTime fromLocalDateTime() {
+        return ZonedDateTimeUtils.from(this.localDateTime);
+    }
+
+    @Benchmark
+    public ZonedDateTime fromLocalDateTimeWithZone() {
+        return ZonedDateTimeUtils.from(this.localDateTime, this.zoneId, null);
+    }
+
+    @Benchmark
+    public ZonedDateTime zonedDateTimeOf() {
+        return ZonedDateTime.of(this.localDateTime, this.zoneId);
+    }
+
+    @Benchmark
+    public ZoneOffset getOffset() {
+        return ZonedDateTimeUtils.getOffset(this.localDateTime, this.zoneId);
+    }
+
+    @Benchmark
+    public ZonedDateTime fromLocalDate() {
+        return ZonedDateTimeUtils.from(this.localDate);
+    }
+
+    @Benchmark
+    public ZonedDateTime orEndDateTime() {
+        return ZonedDateTimeUtils.orEndDateTime(this.localDateTime);
+    }
+
+    @Benchmark
+    public ZonedDateTime orEndDateTimeNull() {
+        return ZonedDateTimeUtils.orEndDateTime(null);
+    }
+
+    @Benchmark
+    public ZonedDateTime getMaxDateTime() {
+        return ZonedDateTimeUtils.getMaxDateTime();
+    }
+
+}
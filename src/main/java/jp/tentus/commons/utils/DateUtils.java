@@ -1,8 +1,8 @@
 package jp.tentus.commons.utils;
 
-import java.util.Calendar;
+import java.io.Closeable;
+import java.time.Instant;
 import java.util.Date;
-import java.util.GregorianCalendar;
 import java.util.Locale;
 
 /**
@@ -10,6 +10,88 @@ import java.util.Locale;
  */
 public class DateUtils {
 
+    /**
+     * 0000/01/01 から 1970/01/01 までの日数。
+     */
+    private static final long DAYS_0000_TO_1970 = 719528L;
+
+    /**
+     * うるう年ではない年の各月の日数。
+     */
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    /**
+     * System.currentTimeMillis を使用する時計。
+     */
+    public static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    /**
+     * now などで使用する時計。
+     */
+    private static volatile Clock clock = SYSTEM_CLOCK;
+
+    /**
+     * now などで使用する時計を設定します。
+     * <p>
+     * 記録用のタイムスタンプなど、精度よりも取得の速さが重要な場合は CachedClock を設定できます。
+     * 設定した CachedClock は DateUtils が所有し、別の時計に置き換えられた時に閉じられます。
+     *
+     * @param value 使用する時計、null の場合は SYSTEM_CLOCK 。
+     */
+    public static void setClock(Clock value) {
+        Clock replaced;
+
+        synchronized (DateUtils.class) {
+            replaced = clock;
+            clock = (value != null) ? value : SYSTEM_CLOCK;
+        }
+
+        // 置き換えられた CachedClock の更新スレッドが残り続けないよう、停止します。
+        if (replaced != value && replaced instanceof CachedClock) {
+            ((CachedClock) replaced).close();
+        }
+    }
+
+    /**
+     * now などで使用する時計を取得します。
+     *
+     * @return 使用している時計。
+     */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * 設定された時計から、現在の時刻をミリ秒で取得します。
+     *
+     * @return 1970/01/01 00:00:00 UTC からのミリ秒。
+     */
+    public static long currentTimeMillis() {
+        return clock.currentTimeMillis();
+    }
+
+    /**
+     * 設定された時計から、現在の時刻を表す Instant を取得します。
+     * <p>
+     * CachedClock が設定されている場合は、キャッシュされた同じインスタンスを返します。
+     *
+     * @return 現在の時刻を表す Instant 。
+     */
+    public static Instant nowInstant() {
+        Clock current = clock;
+
+        if (current instanceof CachedClock) {
+            return ((CachedClock) current).instant();
+        }
+
+        return Instant.ofEpochMilli(current.currentTimeMillis());
+    }
+
     /**
      * うるう年かどうか判別します。
      *
@@ -17,8 +99,8 @@ public class DateUtils {
      * @return うるう年なら true, それ以外なら false 。
      */
     public static boolean isLeapYear(int year) {
-        if ((year % 4) == 0) {
-            if (0 < (year % 100) || 0 == (year % 400)) {
+        if ((year & 3) == 0) {
+            if (0 != (year % 100) || 0 == (year % 400)) {
                 return true;
             }
         }
@@ -26,23 +108,98 @@ public class DateUtils {
         return false;
     }
 
+    /**
+     * 月の日数を取得します。
+     *
+     * @param year  年。
+     * @param month 月。
+     * @return 月の日数、月が 1 から 12 の範囲外の場合は 0 。
+     */
+    public static int getDaysInMonth(int year, int month) {
+        if (month < 1 || 12 < month) {
+            return 0;
+        }
+
+        if (month == 2 && isLeapYear(year)) {
+            return 29;
+        }
+
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    /**
+     * 1970/01/01 からの日数を取得します。
+     * <p>
+     * 日付が有効かどうかは確認しません。必要な場合は validateDate で確認してください。
+     *
+     * @param year  年。
+     * @param month 月。
+     * @param day   日。
+     * @return 1970/01/01 を 0 とした日数。
+     */
+    public static long toEpochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+
+        if (month > 2) {
+            total--;
+
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+
+        return total - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * 曜日を取得します。
+     * <p>
+     * 日付が有効かどうかは確認しません。必要な場合は validateDate で確認してください。
+     *
+     * @param year  年。
+     * @param month 月。
+     * @param day   日。
+     * @return 月曜日を 1 、日曜日を 7 とした曜日 (java.time.DayOfWeek の値と同じ) 。
+     */
+    public static int getDayOfWeek(int year, int month, int day) {
+        // 1970/01/01 は木曜日です。
+        return (int) Math.floorMod(toEpochDay(year, month, day) + 3, 7L) + 1;
+    }
+
     /**
      * ロケールを指定して現在の日時を保持した Date のインスタンスを取得します。
+     * <p>
+     * Date はロケールに依存しない時刻を表すため、結果は now() と同じです。
      *
-     * @param locale 取得する日付のロケール。
+     * @param locale 取得する日付のロケール。使用されません。
      * @return 現在の日時を保持した Date 。
+     * @deprecated ロケールは結果に影響しないため、now() を使用してください。
      */
+    @Deprecated
     public static Date now(Locale locale) {
-        return Calendar.getInstance(locale).getTime();
+        return now();
     }
 
     /**
      * 現在の日時を保持した Date のインスタンスを取得します。
+     * <p>
+     * 時刻は setClock で設定された時計から取得します。
      *
      * @return 現在の日時を保持した Date 。
      */
     public static Date now() {
-        return now(Locale.getDefault());
+        // Date は変更可能なため、呼び出しごとに生成します。
+        return new Date(clock.currentTimeMillis());
     }
 
     /**
@@ -54,15 +211,219 @@ public class DateUtils {
      * @return 有効な日付なら true, それ以外なら false 。
      */
     public static boolean validateDate(int year, int month, int day) {
-        // GregorianCalendar のインスタンスを取得します。
-        Calendar c = new GregorianCalendar(year, (month - 1), day);
+        // 以前の GregorianCalendar による確認と同様に、紀元前の年は無効とします。
+        return 0 < year && 1 <= day && day <= getDaysInMonth(year, month);
+    }
+
+    /**
+     * 複数の日付が有効かそれぞれ確認します。
+     *
+     * @param years   年の配列。
+     * @param months  月の配列。
+     * @param days    日の配列。
+     * @param results 結果を格納する配列。有効な日付なら true, それ以外なら false が格納されます。
+     * @return 有効な日付の数。
+     * @throws IllegalArgumentException 配列の長さが異なる場合。
+     */
+    public static int validateDates(int[] years, int[] months, int[] days, boolean[] results) {
+        int length = checkLength(years, months, days, results.length);
+        int count = 0;
+
+        for (int i = 0; i < length; i++) {
+            boolean valid = validateDate(years[i], months[i], days[i]);
 
-        // 日付に変更が生じているか確認します。
-        if (c.get(Calendar.YEAR) == year && (c.get(Calendar.MONTH) + 1) == month && day == c.get(Calendar.DATE)) {
-            return true;
+            results[i] = valid;
+
+            if (valid) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * 複数の日付の 1970/01/01 からの日数をそれぞれ取得します。
+     *
+     * @param years   年の配列。
+     * @param months  月の配列。
+     * @param days    日の配列。
+     * @param results 結果を格納する配列。
+     * @throws IllegalArgumentException 配列の長さが異なる場合。
+     */
+    public static void toEpochDays(int[] years, int[] months, int[] days, long[] results) {
+        int length = checkLength(years, months, days, results.length);
+
+        for (int i = 0; i < length; i++) {
+            results[i] = toEpochDay(years[i], months[i], days[i]);
+        }
+    }
+
+    /**
+     * 複数の日付の曜日をそれぞれ取得します。
+     *
+     * @param years   年の配列。
+     * @param months  月の配列。
+     * @param days    日の配列。
+     * @param results 結果を格納する配列。月曜日を 1 、日曜日を 7 とした曜日が格納されます。
+     * @throws IllegalArgumentException 配列の長さが異なる場合。
+     */
+    public static void getDaysOfWeek(int[] years, int[] months, int[] days, int[] results) {
+        int length = checkLength(years, months, days, results.length);
+
+        for (int i = 0; i < length; i++) {
+            results[i] = getDayOfWeek(years[i], months[i], days[i]);
+        }
+    }
+
+    private static int checkLength(int[] years, int[] months, int[] days, int resultLength) {
+        int length = years.length;
+
+        if (months.length != length || days.length != length || resultLength != length) {
+            throw new IllegalArgumentException("Array lengths do not match.");
+        }
+
+        return length;
+    }
+
+    /**
+     * 現在の時刻を提供する時計です。
+     */
+    public interface Clock {
+
+        /**
+         * 現在の時刻をミリ秒で取得します。
+         *
+         * @return 1970/01/01 00:00:00 UTC からのミリ秒。
+         */
+        long currentTimeMillis();
+
+    }
+
+    /**
+     * 一定の間隔で時刻を更新し、その値を返す時計です。
+     * <p>
+     * バックグラウンドのデーモンスレッドが指定した間隔で元の時計を読み、不変の Instant として公開します。
+     * 時刻の取得は volatile なフィールドの読み込みのみで行われますが、精度は更新の間隔に依存します。
+     * <p>
+     * <pre>{@code
+     *      DateUtils.setClock(new DateUtils.CachedClock(10));
+     * }</pre>
+     * <p>
+     * 生成した時点で更新スレッドが開始されます。使い終わった時計は close で停止してください。
+     * DateUtils.setClock で設定した時計は、別の時計に置き換えた時に閉じられます。
+     */
+    public static final class CachedClock implements Clock, Closeable {
+
+        private final Clock source;
+
+        private final long resolutionMillis;
+
+        private final Thread ticker;
+
+        /**
+         * 最後に更新した時刻。
+         */
+        private volatile Instant current;
+
+        private volatile boolean closed;
+
+        /**
+         * SYSTEM_CLOCK の時刻をキャッシュする時計を生成し、更新を開始します。
+         *
+         * @param resolutionMillis 時刻を更新する間隔 (ミリ秒) 。
+         */
+        public CachedClock(long resolutionMillis) {
+            this(SYSTEM_CLOCK, resolutionMillis);
+        }
+
+        /**
+         * 指定した時計の時刻をキャッシュする時計を生成し、更新を開始します。
+         *
+         * @param source           元の時計。
+         * @param resolutionMillis 時刻を更新する間隔 (ミリ秒) 。
+         */
+        public CachedClock(Clock source, long resolutionMillis) {
+            if (source == null) {
+                throw new IllegalArgumentException("source is null.");
+            }
+
+            if (resolutionMillis <= 0) {
+                throw new IllegalArgumentException("resolutionMillis must be positive: " + resolutionMillis);
+            }
+
+            this.source = source;
+            this.resolutionMillis = resolutionMillis;
+            this.current = Instant.ofEpochMilli(source.currentTimeMillis());
+            this.ticker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    tick();
+                }
+            }, "DateUtils-CachedClock");
+            this.ticker.setDaemon(true);
+            this.ticker.start();
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return this.current.toEpochMilli();
+        }
+
+        /**
+         * 最後に更新した時刻を取得します。
+         *
+         * @return 最後に更新した時刻を表す Instant 。
+         */
+        public Instant instant() {
+            return this.current;
+        }
+
+        /**
+         * 時刻を更新する間隔を取得します。
+         *
+         * @return 時刻を更新する間隔 (ミリ秒) 。
+         */
+        public long getResolutionMillis() {
+            return this.resolutionMillis;
+        }
+
+        /**
+         * 時刻の更新を停止しているかどうかを返します。
+         *
+         * @return close が呼び出された場合は true 。
+         */
+        public boolean isClosed() {
+            return this.closed;
+        }
+
+        /**
+         * 時刻の更新を停止します。停止した後は、最後に更新した時刻を返し続けます。
+         */
+        @Override
+        public void close() {
+            this.closed = true;
+
+            this.ticker.interrupt();
+        }
+
+        private void tick() {
+            while (!this.closed) {
+                try {
+                    Thread.sleep(this.resolutionMillis);
+                } catch (InterruptedException ex) {
+                    break;
+                }
+
+                long millis = this.source.currentTimeMillis();
+
+                // 同じ時刻の場合は、インスタンスを生成せずに以前のものを使い続けます。
+                if (millis != this.current.toEpochMilli()) {
+                    this.current = Instant.ofEpochMilli(millis);
+                }
+            }
         }
 
-        return false;
     }
 
 }
@@ -1,12 +1,35 @@
 package jp.tentus.commons.utils;
 
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
 /**
  * 列挙型に対するコンビニエンスメソッドを提供します。
  */
 public class EnumUtils {
 
+    /**
+     * 列挙型ごとの、名前の表。
+     * <p>
+     * クラスローダーを解放できるよう、キーの列挙型は弱参照で、名前の表はソフト参照で保持します。
+     * 名前の表は列挙型の値を参照するため、強参照で保持するとキーも解放されなくなります。
+     */
+    private static final Map<Class<?>, Reference<NameTable>> NAME_TABLES = new WeakHashMap<>();
+
+    /**
+     * 直前に使用した列挙型の名前の表。NAME_TABLES と同じくソフト参照で保持します。
+     */
+    private static volatile Reference<NameTable> lastTable;
+
     /**
      * 列挙型の値を文字列へ変換します。
+     * <p>
+     * 小文字にした名前は列挙型ごとにキャッシュされ、以降は同じ文字列が返されます。
      *
      * @param enumValue    列挙型の値。
      * @param defaultValue デフォルト値。
@@ -14,7 +37,7 @@ public class EnumUtils {
      */
     public static String toString(Enum enumValue, String defaultValue) {
         if (enumValue != null) {
-            return StringUtils.toLowerCase(enumValue.name());
+            return table(enumValue.getDeclaringClass()).names[enumValue.ordinal()];
         } else {
             return defaultValue;
         }
@@ -30,4 +53,469 @@ public class EnumUtils {
         return toString(enumValue, null);
     }
 
+    /**
+     * 文字列から列挙型の値を得ます。大文字と小文字は区別しません。
+     *
+     * @param enumClass 列挙型のクラス。
+     * @param value     対象の文字列。
+     * @param <E>       列挙型の型。
+     * @return 名前が一致する列挙型の値、一致しない場合は null 。
+     */
+    public static <E extends Enum<E>> E from(Class<E> enumClass, CharSequence value) {
+        return from(enumClass, value, null);
+    }
+
+    /**
+     * 文字列から列挙型の値を得ます。大文字と小文字は区別しません。
+     *
+     * @param enumClass    列挙型のクラス。
+     * @param value        対象の文字列。
+     * @param defaultValue 一致する値がない場合のデフォルト値。
+     * @param <E>          列挙型の型。
+     * @return 名前が一致する列挙型の値、一致しない場合は defaultValue 。
+     */
+    public static <E extends Enum<E>> E from(Class<E> enumClass, CharSequence value, E defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        return from(enumClass, value, 0, value.length(), defaultValue);
+    }
+
+    /**
+     * 文字列の指定した範囲から列挙型の値を得ます。大文字と小文字は区別しません。
+     * <p>
+     * 名前の表から探すため、部分文字列などのオブジェクトは生成しません。
+     *
+     * @param enumClass    列挙型のクラス。
+     * @param value        対象の文字列。
+     * @param beginIndex   名前の開始位置。
+     * @param endIndex     名前の終了位置 (この位置の文字は含みません) 。
+     * @param defaultValue 一致する値がない場合のデフォルト値。
+     * @param <E>          列挙型の型。
+     * @return 名前が一致する列挙型の値、一致しない場合は defaultValue 。
+     * @throws IndexOutOfBoundsException 範囲が文字列の外を指している場合。
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> E from(Class<E> enumClass, CharSequence value, int beginIndex, int endIndex, E defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > value.length()) {
+            throw new IndexOutOfBoundsException("beginIndex: " + beginIndex + ", endIndex: " + endIndex + ", length: " + value.length());
+        }
+
+        E found = (E) table(enumClass).find(value, beginIndex, endIndex);
+
+        return (found != null) ? found : defaultValue;
+    }
+
+    /**
+     * 列挙型の値の集合を、小文字の名前を区切り文字でつないだ文字列へ変換します。
+     *
+     * @param values    列挙型の値の集合。
+     * @param separator 区切り文字。
+     * @return 値が null の場合は null それ以外は文字列。
+     */
+    public static String toString(Collection<? extends Enum<?>> values, char separator) {
+        return toString(values, separator, null);
+    }
+
+    /**
+     * 列挙型の値の集合を、小文字の名前を区切り文字でつないだ文字列へ変換します。
+     *
+     * @param values       列挙型の値の集合。
+     * @param separator    区切り文字。
+     * @param defaultValue デフォルト値。
+     * @return 値が null の場合は defaultValue それ以外は文字列。
+     */
+    public static String toString(Collection<? extends Enum<?>> values, char separator, String defaultValue) {
+        if (values == null) {
+            return defaultValue;
+        }
+
+        StringBuilder builder = new StringBuilder(values.size() * 16);
+
+        for (Enum<?> value : values) {
+            if (builder.length() > 0) {
+                builder.append(separator);
+            }
+
+            builder.append(toString(value));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * 区切り文字でつながれた名前から、列挙型の値の集合を得ます。
+     *
+     * @param enumClass 列挙型のクラス。
+     * @param value     対象の文字列。
+     * @param separator 区切り文字。
+     * @param <E>       列挙型の型。
+     * @return 列挙型の値の集合、変換できない場合は null 。
+     */
+    public static <E extends Enum<E>> EnumSet<E> toEnumSet(Class<E> enumClass, CharSequence value, char separator) {
+        return toEnumSet(enumClass, value, separator, null);
+    }
+
+    /**
+     * 区切り文字でつながれた名前から、列挙型の値の集合を得ます。
+     * <p>
+     * 文字列を一度だけ走査し、名前ごとの部分文字列は生成しません。
+     * 名前の大文字と小文字は区別せず、前後の空白と空の名前は無視します。
+     *
+     * @param enumClass    列挙型のクラス。
+     * @param value        対象の文字列。
+     * @param separator    区切り文字。
+     * @param defaultValue value が null の場合や、一致しない名前が含まれていた場合のデフォルト値。
+     * @param <E>          列挙型の型。
+     * @return 列挙型の値の集合。
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> EnumSet<E> toEnumSet(Class<E> enumClass, CharSequence value, char separator, EnumSet<E> defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        NameTable table = table(enumClass);
+        EnumSet<E> result = EnumSet.noneOf(enumClass);
+        int length = value.length();
+        int from = 0;
+
+        while (from <= length) {
+            int to = from;
+
+            while (to < length && value.charAt(to) != separator) {
+                to++;
+            }
+
+            int next = to + 1;
+
+            while (from < to && value.charAt(from) <= ' ') {
+                from++;
+            }
+
+            while (from < to && value.charAt(to - 1) <= ' ') {
+                to--;
+            }
+
+            if (from < to) {
+                E found = (E) table.find(value, from, to);
+
+                if (found == null) {
+                    return defaultValue;
+                }
+
+                result.add(found);
+            }
+
+            from = next;
+        }
+
+        return result;
+    }
+
+    /**
+     * 列挙型の値の集合を、序数をビットの位置とした long へ変換します。
+     *
+     * @param values 列挙型の値の集合。
+     * @param <E>    列挙型の型。
+     * @return ビットマスク、values が null の場合は 0 。
+     * @throws IllegalArgumentException 序数が 64 以上の値が含まれている場合。
+     */
+    public static <E extends Enum<E>> long toBitmask(Set<E> values) {
+        if (values == null) {
+            return 0L;
+        }
+
+        long bits = 0L;
+
+        for (E value : values) {
+            int ordinal = value.ordinal();
+
+            if (ordinal >= Long.SIZE) {
+                throw new IllegalArgumentException(value.getDeclaringClass().getName() + " has more than 64 constants.");
+            }
+
+            bits |= 1L << ordinal;
+        }
+
+        return bits;
+    }
+
+    /**
+     * 列挙型の値の集合を、序数をビットの位置とした long の配列へ変換します。
+     * <p>
+     * 序数 i の値は、配列の i / 64 番目の要素の i % 64 ビット目に対応します。
+     *
+     * @param enumClass 列挙型のクラス。
+     * @param values    列挙型の値の集合。
+     * @param <E>       列挙型の型。
+     * @return 定数の数を 64 で割って切り上げた長さのビットマスク。
+     */
+    public static <E extends Enum<E>> long[] toBitmasks(Class<E> enumClass, Set<E> values) {
+        long[] bits = new long[(table(enumClass).constants.length + Long.SIZE - 1) / Long.SIZE];
+
+        if (values != null) {
+            for (E value : values) {
+                int ordinal = value.ordinal();
+
+                bits[ordinal >>> 6] |= 1L << ordinal;
+            }
+        }
+
+        return bits;
+    }
+
+    /**
+     * 序数をビットの位置とした long から、列挙型の値の集合を得ます。
+     * <p>
+     * 対応する定数がないビットは無視します。
+     *
+     * @param enumClass 列挙型のクラス。
+     * @param bits      ビットマスク。
+     * @param <E>       列挙型の型。
+     * @return 列挙型の値の集合。
+     */
+    public static <E extends Enum<E>> EnumSet<E> fromBitmask(Class<E> enumClass, long bits) {
+        return fromBitmasks(enumClass, new long[]{bits});
+    }
+
+    /**
+     * 序数をビットの位置とした long の配列から、列挙型の値の集合を得ます。
+     * <p>
+     * 対応する定数がないビットは無視します。
+     *
+     * @param enumClass 列挙型のクラス。
+     * @param bits      ビットマスク。
+     * @param <E>       列挙型の型。
+     * @return 列挙型の値の集合、bits が null の場合は空の集合。
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> EnumSet<E> fromBitmasks(Class<E> enumClass, long[] bits) {
+        Enum<?>[] constants = table(enumClass).constants;
+        EnumSet<E> result = EnumSet.noneOf(enumClass);
+
+        if (bits == null) {
+            return result;
+        }
+
+        for (int i = 0; i < bits.length; i++) {
+            long word = bits[i];
+
+            while (word != 0L) {
+                int ordinal = (i << 6) + Long.numberOfTrailingZeros(word);
+
+                if (ordinal >= constants.length) {
+                    break;
+                }
+
+                result.add((E) constants[ordinal]);
+
+                word &= word - 1;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * 列挙型の名前の表を取得します。
+     * <p>
+     * 直前と同じ列挙型の場合は、ロックを取得せずに返します。
+     *
+     * @param enumClass 列挙型のクラス。
+     * @return 名前の表。
+     */
+    static NameTable table(Class<?> enumClass) {
+        Reference<NameTable> reference = lastTable;
+        NameTable table = (reference != null) ? reference.get() : null;
+
+        if (table != null && table.enumClass == enumClass) {
+            return table;
+        }
+
+        synchronized (NAME_TABLES) {
+            reference = NAME_TABLES.get(enumClass);
+            table = (reference != null) ? reference.get() : null;
+
+            if (table == null) {
+                table = new NameTable(enumClass, (Enum<?>[]) enumClass.getEnumConstants());
+                reference = new SoftReference<>(table);
+
+                NAME_TABLES.put(enumClass, reference);
+            }
+        }
+
+        lastTable = reference;
+
+        return table;
+    }
+
+    /**
+     * 列挙型の小文字の名前と、名前から値を探すためのハッシュ表。
+     * <p>
+     * ハッシュ表は衝突が起きないようにシードと大きさを選ぶため、検索は一度の比較で終わります。
+     */
+    static final class NameTable {
+
+        /**
+         * 衝突しないシードを探す回数。
+         */
+        private static final int MAX_SEED_ATTEMPTS = 64;
+
+        /**
+         * 対象の列挙型。
+         */
+        final Class<?> enumClass;
+
+        /**
+         * 序数を添字とした小文字の名前。
+         */
+        final String[] names;
+
+        /**
+         * 序数を添字とした列挙型の値。
+         */
+        final Enum<?>[] constants;
+
+        private final Enum<?>[] slots;
+
+        private final int seed;
+
+        private final int mask;
+
+        /**
+         * すべての名前が異なる位置に振り分けられているかどうか。そうでない場合は線形探査で探します。
+         */
+        private final boolean perfect;
+
+        NameTable(Class<?> enumClass, Enum<?>[] constants) {
+            this.enumClass = enumClass;
+            this.constants = constants;
+            this.names = new String[constants.length];
+
+            for (int i = 0; i < constants.length; i++) {
+                this.names[i] = StringUtils.toLowerCase(constants[i].name());
+            }
+
+            int size = Integer.highestOneBit(Math.max(constants.length, 1) * 2 - 1) << 1;
+
+            for (int limit = size << 3; size <= limit; size <<= 1) {
+                for (int seed = 0; seed < MAX_SEED_ATTEMPTS; seed++) {
+                    Enum<?>[] slots = place(constants, seed, size - 1);
+
+                    if (slots != null) {
+                        this.slots = slots;
+                        this.seed = seed;
+                        this.mask = size - 1;
+                        this.perfect = true;
+
+                        return;
+                    }
+                }
+            }
+
+            // 衝突しない配置が見つからない場合は、線形探査で配置します。
+            this.mask = (size >> 1) - 1;
+            this.seed = 0;
+            this.slots = new Enum<?>[this.mask + 1];
+            this.perfect = false;
+
+            for (Enum<?> constant : constants) {
+                String name = constant.name();
+                int index = hash(this.seed, name, 0, name.length()) & this.mask;
+
+                while (this.slots[index] != null) {
+                    index = (index + 1) & this.mask;
+                }
+
+                this.slots[index] = constant;
+            }
+        }
+
+        Enum<?> find(CharSequence value, int beginIndex, int endIndex) {
+            int index = hash(this.seed, value, beginIndex, endIndex) & this.mask;
+            Enum<?> candidate;
+
+            while ((candidate = this.slots[index]) != null) {
+                if (equalsIgnoreCase(candidate.name(), value, beginIndex, endIndex)) {
+                    return candidate;
+                }
+
+                if (this.perfect) {
+                    return null;
+                }
+
+                index = (index + 1) & this.mask;
+            }
+
+            return null;
+        }
+
+        private static Enum<?>[] place(Enum<?>[] constants, int seed, int mask) {
+            Enum<?>[] slots = new Enum<?>[mask + 1];
+
+            for (Enum<?> constant : constants) {
+                String name = constant.name();
+                int index = hash(seed, name, 0, name.length()) & mask;
+
+                if (slots[index] != null) {
+                    return null;
+                }
+
+                slots[index] = constant;
+            }
+
+            return slots;
+        }
+
+        private static int hash(int seed, CharSequence value, int beginIndex, int endIndex) {
+            int h = seed * 0x9E3779B9;
+
+            for (int i = beginIndex; i < endIndex; i++) {
+                h = 31 * h + fold(value.charAt(i));
+            }
+
+            return h ^ (h >>> 16);
+        }
+
+        private static boolean equalsIgnoreCase(String name, CharSequence value, int beginIndex, int endIndex) {
+            int length = name.length();
+
+            if (length != endIndex - beginIndex) {
+                return false;
+            }
+
+            for (int i = 0; i < length; i++) {
+                char a = name.charAt(i);
+                char b = value.charAt(beginIndex + i);
+
+                if (a != b && fold(a) != fold(b)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * 大文字と小文字を区別せずに比較するため、文字を小文字にそろえます。
+         *
+         * @param c 対象の文字。
+         * @return そろえられた文字。
+         */
+        private static char fold(char c) {
+            if (c < 0x80) {
+                return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+            }
+
+            return Character.toLowerCase(Character.toUpperCase(c));
+        }
+
+    }
+
 }
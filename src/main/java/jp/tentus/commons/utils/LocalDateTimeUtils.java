@@ -1,13 +1,27 @@
 package jp.tentus.commons.utils;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * LocalDateTime に関するコンビニエンスメソッドを提供します。
  */
 public class LocalDateTimeUtils {
 
+    /**
+     * 配列を並列に変換する要素数の下限。
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * 配列を並列に変換する場合の、1 タスクあたりの要素数。
+     */
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 12;
+
     /**
      * ZonedDateTime から LocalDateTime を得ます。
      *
@@ -33,4 +47,481 @@ public class LocalDateTimeUtils {
         }
     }
 
+    /**
+     * 1970/01/01 00:00:00 UTC からのミリ秒から、タイムゾーンでの LocalDateTime を得ます。
+     *
+     * @param epochMilli 1970/01/01 00:00:00 UTC からのミリ秒。
+     * @param zoneId     対象のタイムゾーンを表す ZoneId 。
+     * @return 変換された LocalDateTime 。
+     */
+    public static LocalDateTime from(long epochMilli, ZoneId zoneId) {
+        long epochSecond = Math.floorDiv(epochMilli, 1000L);
+
+        return LocalDateTime.ofEpochSecond(epochSecond, nanoOf(epochMilli), ZonedDateTimeUtils.transitions(zoneId).offsetOfInstant(epochSecond));
+    }
+
+    /**
+     * ZonedDateTime の配列を LocalDateTime の配列に変換します。
+     *
+     * @param values       LocalDateTime に変換する ZonedDateTime の配列。
+     * @param defaultValue 要素が null だった場合に格納される LocalDateTime 。
+     * @return 変換された LocalDateTime の配列、values が null の場合は null 。
+     */
+    public static LocalDateTime[] from(final ZonedDateTime[] values, final LocalDateTime defaultValue) {
+        if (values == null) {
+            return null;
+        }
+
+        final LocalDateTime[] results = new LocalDateTime[values.length];
+
+        forEachRange(values.length, new Range() {
+            @Override
+            public void convert(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    ZonedDateTime value = values[i];
+
+                    results[i] = (value != null) ? value.toLocalDateTime() : defaultValue;
+                }
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * 1970/01/01 00:00:00 UTC からのミリ秒の配列を、タイムゾーンでの LocalDateTime の配列に変換します。
+     * <p>
+     * オフセットは切り替わらない期間ごとに一度だけ求め、要素数が多い場合は ForkJoinPool の共通プールで並列に変換します。
+     *
+     * @param values 1970/01/01 00:00:00 UTC からのミリ秒の配列。
+     * @param zoneId 対象のタイムゾーンを表す ZoneId 。
+     * @return 変換された LocalDateTime の配列、values が null の場合は null 。
+     */
+    public static LocalDateTime[] fromEpochMillis(final long[] values, ZoneId zoneId) {
+        if (values == null) {
+            return null;
+        }
+
+        final ZonedDateTimeUtils.Transitions transitions = ZonedDateTimeUtils.transitions(zoneId);
+        final LocalDateTime[] results = new LocalDateTime[values.length];
+
+        forEachRange(values.length, new Range() {
+            @Override
+            public void convert(int from, int to) {
+                ZonedDateTimeUtils.Window window = null;
+
+                for (int i = from; i < to; i++) {
+                    long epochSecond = Math.floorDiv(values[i], 1000L);
+
+                    if (window == null || !window.containsInstant(epochSecond)) {
+                        window = transitions.windowOfInstant(epochSecond);
+                    }
+
+                    results[i] = LocalDateTime.ofEpochSecond(epochSecond, nanoOf(values[i]), window.offset());
+                }
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * LocalDateTime をタイムゾーンでの日時として、1970/01/01 00:00:00 UTC からのミリ秒に変換します。
+     * <p>
+     * 夏時間の切り替えによる空白や重複にあたる場合は、ZonedDateTime.of と同じ瞬間に変換します。
+     *
+     * @param value        対象の LocalDateTime 。
+     * @param zoneId       対象のタイムゾーンを表す ZoneId 。
+     * @param defaultValue value が null の場合や、long の範囲を超える場合のデフォルト値。
+     * @return 1970/01/01 00:00:00 UTC からのミリ秒。
+     */
+    public static long toEpochMilli(LocalDateTime value, ZoneId zoneId, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        return toEpochMilli(value.toEpochSecond(ZonedDateTimeUtils.getOffset(value, zoneId)), value.getNano(), defaultValue);
+    }
+
+    /**
+     * LocalDateTime の配列をタイムゾーンでの日時として、1970/01/01 00:00:00 UTC からのミリ秒の配列に変換します。
+     * <p>
+     * オフセットは切り替わらない期間ごとに一度だけ求め、要素数が多い場合は ForkJoinPool の共通プールで並列に変換します。
+     *
+     * @param values       対象の LocalDateTime の配列。
+     * @param zoneId       対象のタイムゾーンを表す ZoneId 。
+     * @param defaultValue 要素が null の場合や、long の範囲を超える場合に格納されるデフォルト値。
+     * @return 1970/01/01 00:00:00 UTC からのミリ秒の配列、values が null の場合は null 。
+     */
+    public static long[] toEpochMillis(final LocalDateTime[] values, final ZoneId zoneId, final long defaultValue) {
+        if (values == null) {
+            return null;
+        }
+
+        final ZonedDateTimeUtils.Transitions transitions = ZonedDateTimeUtils.transitions(zoneId);
+        final long[] results = new long[values.length];
+
+        forEachRange(values.length, new Range() {
+            @Override
+            public void convert(int from, int to) {
+                ZonedDateTimeUtils.Window window = null;
+
+                for (int i = from; i < to; i++) {
+                    LocalDateTime value = values[i];
+
+                    if (value == null) {
+                        results[i] = defaultValue;
+
+                        continue;
+                    }
+
+                    long local = value.toEpochSecond(ZoneOffset.UTC);
+
+                    if (window == null || !window.containsLocal(local)) {
+                        ZonedDateTimeUtils.Window found = transitions.windowOfLocal(value);
+
+                        if (found == null) {
+                            results[i] = toEpochMilli(value, zoneId, defaultValue);
+
+                            continue;
+                        }
+
+                        window = found;
+                    }
+
+                    results[i] = toEpochMilli(local - window.offset().getTotalSeconds(), value.getNano(), defaultValue);
+                }
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * ISO-8601 形式 (yyyy-MM-ddTHH:mm:ss) または yyyy-MM-dd HH:mm:ss 形式の文字列から LocalDateTime を得ます。
+     *
+     * @param value 対象の文字列。
+     * @return 変換された LocalDateTime 、変換できない場合は null 。
+     */
+    public static LocalDateTime parse(CharSequence value) {
+        return parse(value, null);
+    }
+
+    /**
+     * ISO-8601 形式 (yyyy-MM-ddTHH:mm:ss) または yyyy-MM-dd HH:mm:ss 形式の文字列から LocalDateTime を得ます。
+     *
+     * @param value        対象の文字列。
+     * @param defaultValue value が null の場合や、変換できない場合に返される LocalDateTime 。
+     * @return 変換された LocalDateTime 。
+     */
+    public static LocalDateTime parse(CharSequence value, LocalDateTime defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        return parse(value, 0, value.length(), defaultValue);
+    }
+
+    /**
+     * 文字列の指定した範囲から LocalDateTime を得ます。
+     * <p>
+     * 日付と時刻の区切りは 'T' または空白で、秒と小数点以下 9 桁までの秒は省略できます。
+     * DateTimeFormatter を使用せず、部分文字列も生成しません。
+     *
+     * @param value        対象の文字列。
+     * @param beginIndex   変換を開始する位置。
+     * @param endIndex     変換を終了する位置 (この位置の文字は含みません) 。
+     * @param defaultValue value が null の場合や、変換できない場合に返される LocalDateTime 。
+     * @return 変換された LocalDateTime 。
+     * @throws IndexOutOfBoundsException 範囲が文字列の外を指している場合。
+     */
+    public static LocalDateTime parse(CharSequence value, int beginIndex, int endIndex, LocalDateTime defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > value.length()) {
+            throw new IndexOutOfBoundsException("beginIndex: " + beginIndex + ", endIndex: " + endIndex + ", length: " + value.length());
+        }
+
+        if (endIndex - beginIndex < 16) {
+            return defaultValue;
+        }
+
+        int index = beginIndex;
+        int year = parseDigits(value, index, 4);
+        int month = parseDigits(value, index + 5, 2);
+        int day = parseDigits(value, index + 8, 2);
+        int hour = parseDigits(value, index + 11, 2);
+        int minute = parseDigits(value, index + 14, 2);
+        char separator = value.charAt(index + 10);
+
+        if (value.charAt(index + 4) != '-' || value.charAt(index + 7) != '-' || value.charAt(index + 13) != ':'
+                || (separator != 'T' && separator != 't' && separator != ' ')) {
+            return defaultValue;
+        }
+
+        index += 16;
+
+        int second = 0;
+        int nano = 0;
+
+        if (index < endIndex) {
+            if (endIndex - index < 3 || value.charAt(index) != ':' || (second = parseDigits(value, index + 1, 2)) < 0) {
+                return defaultValue;
+            }
+
+            index += 3;
+
+            if (index < endIndex) {
+                int digits = endIndex - index - 1;
+
+                if (value.charAt(index) != '.' || digits < 1 || 9 < digits || (nano = parseDigits(value, index + 1, digits)) < 0) {
+                    return defaultValue;
+                }
+
+                for (int i = digits; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+
+        if ((year | month | day | hour | minute) < 0 || 23 < hour || 59 < minute || 59 < second || !DateUtils.validateDate(year, month, day)) {
+            return defaultValue;
+        }
+
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    /**
+     * LocalDateTime を ISO-8601 形式 (yyyy-MM-ddTHH:mm:ss) で StringBuilder に追加します。
+     * <p>
+     * 秒は常に出力し、小数点以下の秒は 0 以外の場合に 3, 6, 9 桁で出力します。
+     *
+     * @param out   追加先の StringBuilder 。
+     * @param value 対象の LocalDateTime 。
+     * @return out 。
+     */
+    public static StringBuilder formatIso(StringBuilder out, LocalDateTime value) {
+        return formatIso(out, value, null);
+    }
+
+    /**
+     * LocalDateTime を ISO-8601 形式 (yyyy-MM-ddTHH:mm:ss) で StringBuilder に追加します。
+     * <p>
+     * 秒は常に出力し、小数点以下の秒は 0 以外の場合に 3, 6, 9 桁で出力します。
+     *
+     * @param out          追加先の StringBuilder 。
+     * @param value        対象の LocalDateTime 。
+     * @param defaultValue value が null の場合に追加する文字列、null の場合は何も追加しません。
+     * @return out 。
+     */
+    public static StringBuilder formatIso(StringBuilder out, LocalDateTime value, CharSequence defaultValue) {
+        if (value == null) {
+            return (defaultValue != null) ? out.append(defaultValue) : out;
+        }
+
+        return append(out, value, 'T', true);
+    }
+
+    /**
+     * LocalDateTime を yyyy-MM-dd HH:mm:ss 形式で StringBuilder に追加します。
+     *
+     * @param out   追加先の StringBuilder 。
+     * @param value 対象の LocalDateTime 。
+     * @return out 。
+     */
+    public static StringBuilder format(StringBuilder out, LocalDateTime value) {
+        return format(out, value, null);
+    }
+
+    /**
+     * LocalDateTime を yyyy-MM-dd HH:mm:ss 形式で StringBuilder に追加します。
+     *
+     * @param out          追加先の StringBuilder 。
+     * @param value        対象の LocalDateTime 。
+     * @param defaultValue value が null の場合に追加する文字列、null の場合は何も追加しません。
+     * @return out 。
+     */
+    public static StringBuilder format(StringBuilder out, LocalDateTime value, CharSequence defaultValue) {
+        if (value == null) {
+            return (defaultValue != null) ? out.append(defaultValue) : out;
+        }
+
+        return append(out, value, ' ', false);
+    }
+
+    /**
+     * LocalDateTime を文字列として追加します。
+     *
+     * @param out       追加先の StringBuilder 。
+     * @param value     対象の LocalDateTime 。
+     * @param separator 日付と時刻の区切り文字。
+     * @param fraction  小数点以下の秒を出力する場合 true 。
+     * @return out 。
+     */
+    static StringBuilder append(StringBuilder out, LocalDateTime value, char separator, boolean fraction) {
+        int year = value.getYear();
+
+        if (year < 0 || 9999 < year) {
+            // 4 桁に収まらない年は、符号付きの拡張形式で出力します。
+            out.append(value.toLocalDate());
+        } else {
+            appendDigits(out, year, 4);
+            out.append('-');
+            appendDigits(out, value.getMonthValue(), 2);
+            out.append('-');
+            appendDigits(out, value.getDayOfMonth(), 2);
+        }
+
+        out.append(separator);
+        appendDigits(out, value.getHour(), 2);
+        out.append(':');
+        appendDigits(out, value.getMinute(), 2);
+        out.append(':');
+        appendDigits(out, value.getSecond(), 2);
+
+        int nano = value.getNano();
+
+        if (fraction && nano != 0) {
+            out.append('.');
+
+            if (nano % 1000000 == 0) {
+                appendDigits(out, nano / 1000000, 3);
+            } else if (nano % 1000 == 0) {
+                appendDigits(out, nano / 1000, 6);
+            } else {
+                appendDigits(out, nano, 9);
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * 0 埋めした数字を追加します。
+     *
+     * @param out    追加先の StringBuilder 。
+     * @param value  0 以上の値。
+     * @param digits 桁数。
+     */
+    static void appendDigits(StringBuilder out, int value, int digits) {
+        int length = out.length();
+
+        out.setLength(length + digits);
+
+        for (int i = length + digits - 1; i >= length; i--) {
+            out.setCharAt(i, (char) ('0' + value % 10));
+
+            value /= 10;
+        }
+    }
+
+    /**
+     * 指定した位置から決まった桁数の数字を読み込みます。
+     *
+     * @param value  対象の文字列。
+     * @param index  読み込みを開始する位置。
+     * @param digits 桁数。
+     * @return 読み込んだ値、ASCII の数字以外が含まれる場合は -1 。
+     */
+    static int parseDigits(CharSequence value, int index, int digits) {
+        int result = 0;
+
+        for (int end = index + digits; index < end; index++) {
+            int digit = value.charAt(index) - '0';
+
+            if (digit < 0 || 9 < digit) {
+                return -1;
+            }
+
+            result = result * 10 + digit;
+        }
+
+        return result;
+    }
+
+    /**
+     * 秒とナノ秒をミリ秒に変換します。
+     *
+     * @param epochSecond  1970/01/01 00:00:00 UTC からの秒数。
+     * @param nano         ナノ秒。
+     * @param defaultValue long の範囲を超える場合のデフォルト値。
+     * @return 1970/01/01 00:00:00 UTC からのミリ秒。
+     */
+    static long toEpochMilli(long epochSecond, int nano, long defaultValue) {
+        try {
+            return Math.addExact(Math.multiplyExact(epochSecond, 1000L), nano / 1000000);
+        } catch (ArithmeticException ex) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * ミリ秒の 1 秒未満の部分をナノ秒で取得します。
+     *
+     * @param epochMilli 1970/01/01 00:00:00 UTC からのミリ秒。
+     * @return ナノ秒。
+     */
+    static int nanoOf(long epochMilli) {
+        return (int) Math.floorMod(epochMilli, 1000L) * 1000000;
+    }
+
+    /**
+     * 配列の範囲ごとに変換を行います。要素数が PARALLEL_THRESHOLD 以上の場合は ForkJoinPool の共通プールで並列に実行します。
+     *
+     * @param length 配列の長さ。
+     * @param range  範囲ごとの変換。
+     */
+    static void forEachRange(int length, Range range) {
+        if (length < PARALLEL_THRESHOLD) {
+            range.convert(0, length);
+        } else {
+            ForkJoinPool.commonPool().invoke(new RangeTask(range, 0, length));
+        }
+    }
+
+    /**
+     * 配列の範囲ごとの変換。
+     */
+    interface Range {
+
+        void convert(int from, int to);
+
+    }
+
+    /**
+     * 配列の範囲を分割して並列に変換するタスク。
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Range range;
+
+        private final int from;
+
+        private final int to;
+
+        RangeTask(Range range, int from, int to) {
+            this.range = range;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= PARALLEL_CHUNK_SIZE) {
+                this.range.convert(this.from, this.to);
+
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+
+            invokeAll(new RangeTask(this.range, this.from, middle), new RangeTask(this.range, middle, this.to));
+        }
+
+    }
+
 }
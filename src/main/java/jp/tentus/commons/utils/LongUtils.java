@@ -1,6 +1,10 @@
 package jp.tentus.commons.utils;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Long 値に関するコンビニエンスメソッドを提供します。
@@ -70,11 +74,11 @@ public class LongUtils {
      * @return 変換された値。
      */
     public static long parseLong(String value, long defaultValue) {
-        try {
-            return Long.parseLong(value);
-        } catch (NumberFormatException e) {
+        if (value == null) {
             return defaultValue;
         }
+
+        return parseLong(value, 0, value.length(), defaultValue);
     }
 
     /**
@@ -87,4 +91,456 @@ public class LongUtils {
         return parseLong(value, 0L);
     }
 
+    /**
+     * 文字列の指定した範囲から long の値を得ます。
+     * <p>
+     * Long.parseLong(String) と同じ規則で変換しますが、変換できない場合でも例外を生成せずに defaultValue を返します。
+     *
+     * @param value        対象の文字列。
+     * @param beginIndex   変換を開始する位置。
+     * @param endIndex     変換を終了する位置 (この位置の文字は含みません) 。
+     * @param defaultValue 変換できない場合のデフォルト値。
+     * @return 変換された値。
+     * @throws IndexOutOfBoundsException 範囲が文字列の外を指している場合。
+     */
+    public static long parseLong(CharSequence value, int beginIndex, int endIndex, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > value.length()) {
+            throw new IndexOutOfBoundsException("beginIndex: " + beginIndex + ", endIndex: " + endIndex + ", length: " + value.length());
+        }
+
+        if (beginIndex == endIndex) {
+            return defaultValue;
+        }
+
+        // Long.parseLong と同様に、負の値として積み上げてオーバーフローを判定します。
+        int index = beginIndex;
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        char first = value.charAt(index);
+
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            } else if (first != '+') {
+                return defaultValue;
+            }
+
+            if (++index == endIndex) {
+                return defaultValue;
+            }
+        }
+
+        long multiplyLimit = limit / 10;
+        long result = 0;
+
+        while (index < endIndex) {
+            int digit = IntegerUtils.toDigit(value.charAt(index++));
+
+            if (digit < 0 || result < multiplyLimit) {
+                return defaultValue;
+            }
+
+            result *= 10;
+
+            if (result < limit + digit) {
+                return defaultValue;
+            }
+
+            result -= digit;
+        }
+
+        return negative ? result : -result;
+    }
+
+    /**
+     * 文字列の指定した範囲から long の値を得ます。
+     *
+     * @param value      対象の文字列。
+     * @param beginIndex 変換を開始する位置。
+     * @param endIndex   変換を終了する位置 (この位置の文字は含みません) 。
+     * @return 変換された値。
+     * @throws IndexOutOfBoundsException 範囲が文字列の外を指している場合。
+     */
+    public static long parseLong(CharSequence value, int beginIndex, int endIndex) {
+        return parseLong(value, beginIndex, endIndex, 0L);
+    }
+
+    /**
+     * null を含む long の値を、long の配列と null を表すビットマップで保持する列です。
+     * <p>
+     * List&lt;Long&gt; と異なり要素ごとのオブジェクトを生成しないため、メモリの使用量を大きく減らせます。
+     * 比較と並べ替えでは、compare と同様に null をもっとも小さい値として扱います。
+     * スレッドセーフではありません。
+     * <p>
+     * <pre>{@code
+     *      LongUtils.Column column = new LongUtils.Column();
+     *
+     *      column.add(10L);
+     *      column.addNull();
+     *      column.sort();
+     * }</pre>
+     */
+    public static final class Column {
+
+        private long[] values;
+
+        /**
+         * null の要素のビットが立ったビットマップ。
+         */
+        private long[] nulls;
+
+        private int size;
+
+        /**
+         * 空の列を生成します。
+         */
+        public Column() {
+            this(16);
+        }
+
+        /**
+         * 初期容量を指定して空の列を生成します。
+         *
+         * @param capacity 初期容量。
+         */
+        public Column(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("capacity is negative: " + capacity);
+            }
+
+            this.values = new long[capacity];
+            this.nulls = new long[(capacity + 63) >>> 6];
+        }
+
+        /**
+         * コレクションの値を保持する列を生成します。
+         *
+         * @param values 対象のコレクション。
+         * @return 生成された列、values が null の場合は null 。
+         */
+        public static Column from(Collection<? extends Long> values) {
+            if (values == null) {
+                return null;
+            }
+
+            Column column = new Column(values.size());
+
+            for (Long value : values) {
+                column.add(value);
+            }
+
+            return column;
+        }
+
+        /**
+         * 要素の数を取得します。
+         *
+         * @return 要素の数。
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * 値を末尾に追加します。
+         *
+         * @param value 追加する値。
+         */
+        public void add(long value) {
+            ensureCapacity(this.size + 1);
+
+            this.values[this.size++] = value;
+        }
+
+        /**
+         * 値を末尾に追加します。
+         *
+         * @param value 追加する値、null も指定できます。
+         */
+        public void add(Long value) {
+            if (value != null) {
+                add(value.longValue());
+            } else {
+                addNull();
+            }
+        }
+
+        /**
+         * null を末尾に追加します。
+         */
+        public void addNull() {
+            ensureCapacity(this.size + 1);
+
+            int index = this.size++;
+
+            this.values[index] = 0;
+            this.nulls[index >>> 6] |= 1L << index;
+        }
+
+        /**
+         * 指定した位置の要素が null かどうか確認します。
+         *
+         * @param index 要素の位置。
+         * @return null の場合 true, それ以外は false 。
+         */
+        public boolean isNull(int index) {
+            checkIndex(index);
+
+            return (this.nulls[index >>> 6] & (1L << index)) != 0;
+        }
+
+        /**
+         * 指定した位置の値を取得します。
+         *
+         * @param index        要素の位置。
+         * @param defaultValue 要素が null の場合のデフォルト値。
+         * @return 要素の値。
+         */
+        public long get(int index, long defaultValue) {
+            return isNull(index) ? defaultValue : this.values[index];
+        }
+
+        /**
+         * 指定した位置の値を取得します。
+         *
+         * @param index 要素の位置。
+         * @return 要素の値、要素が null の場合は null 。
+         */
+        public Long getOrNull(int index) {
+            return isNull(index) ? null : this.values[index];
+        }
+
+        /**
+         * 指定した位置に値を設定します。
+         *
+         * @param index 要素の位置。
+         * @param value 設定する値。
+         */
+        public void set(int index, long value) {
+            checkIndex(index);
+
+            this.values[index] = value;
+            this.nulls[index >>> 6] &= ~(1L << index);
+        }
+
+        /**
+         * 指定した位置に null を設定します。
+         *
+         * @param index 要素の位置。
+         */
+        public void setNull(int index) {
+            checkIndex(index);
+
+            this.values[index] = 0;
+            this.nulls[index >>> 6] |= 1L << index;
+        }
+
+        /**
+         * 二つの位置の要素を比較します。
+         * null はもっとも小さい値として処理します。
+         *
+         * @param a 要素の位置。
+         * @param b 要素の位置。
+         * @return 等しい場合 0、最初の要素が大きい場合正の数、最初の要素が小さい場合負の数。
+         */
+        public int compare(int a, int b) {
+            boolean aNull = isNull(a);
+            boolean bNull = isNull(b);
+
+            if (aNull || bNull) {
+                return (aNull == bNull) ? 0 : (aNull ? -1 : 1);
+            }
+
+            return Long.compare(this.values[a], this.values[b]);
+        }
+
+        /**
+         * 要素を昇順に並べ替えます。null は先頭に並べます。
+         */
+        public void sort() {
+            int nullCount = this.size - countNonNull();
+
+            if (nullCount > 0) {
+                // null 以外の値を末尾に詰めてから、null の要素をまとめて先頭に置きます。
+                int position = this.size;
+
+                for (int i = this.size - 1; i >= 0; i--) {
+                    if ((this.nulls[i >>> 6] & (1L << i)) == 0) {
+                        this.values[--position] = this.values[i];
+                    }
+                }
+
+                Arrays.fill(this.values, 0, nullCount, 0L);
+                Arrays.fill(this.nulls, 0);
+
+                for (int i = 0; i < (nullCount >>> 6); i++) {
+                    this.nulls[i] = -1L;
+                }
+
+                if ((nullCount & 63) != 0) {
+                    this.nulls[nullCount >>> 6] = (1L << nullCount) - 1;
+                }
+            }
+
+            Arrays.sort(this.values, nullCount, this.size);
+        }
+
+        /**
+         * null ではない要素の数を取得します。
+         *
+         * @return null ではない要素の数。
+         */
+        public int countNonNull() {
+            int nullCount = 0;
+
+            for (int i = 0, words = (this.size + 63) >>> 6; i < words; i++) {
+                nullCount += Long.bitCount(this.nulls[i]);
+            }
+
+            return this.size - nullCount;
+        }
+
+        /**
+         * null ではない要素の合計を取得します。
+         * <p>
+         * 合計は 128 ビットで計算するため、途中で long の範囲を超えても、最終的な合計が範囲内であれば正しい値を返します。
+         *
+         * @param defaultValue 合計が long の範囲を超える場合のデフォルト値。
+         * @return 合計、null ではない要素がない場合は 0 。
+         */
+        public long sum(long defaultValue) {
+            long low = 0L;
+            long high = 0L;
+
+            for (int word = 0, words = (this.size + 63) >>> 6; word < words; word++) {
+                long bits = this.nulls[word];
+                int from = word << 6;
+                int to = Math.min(from + 64, this.size);
+
+                // null を含まないブロックは、ビットを確認せずに合計します。
+                if (bits == 0L) {
+                    for (int i = from; i < to; i++) {
+                        long value = this.values[i];
+                        long next = low + value;
+
+                        // 符号拡張した上位の語と、下位の語の符号なしの桁上がりを加えます。
+                        high += (value >> 63) + (((low & value) | ((low | value) & ~next)) >>> 63);
+                        low = next;
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        if ((bits & (1L << i)) == 0) {
+                            long value = this.values[i];
+                            long next = low + value;
+
+                            high += (value >> 63) + (((low & value) | ((low | value) & ~next)) >>> 63);
+                            low = next;
+                        }
+                    }
+                }
+            }
+
+            // 上位の語が下位の語の符号拡張と一致する場合のみ、long の範囲に収まります。
+            return (high == (low >> 63)) ? low : defaultValue;
+        }
+
+        /**
+         * null ではない要素の平均を取得します。
+         * <p>
+         * 合計は double で計算するため、long の範囲を超える場合も近似値を返します。
+         *
+         * @param defaultValue null ではない要素がない場合のデフォルト値。
+         * @return 平均。
+         */
+        public double average(double defaultValue) {
+            double sum = 0.0;
+            int count = 0;
+
+            for (int i = 0; i < this.size; i++) {
+                if ((this.nulls[i >>> 6] & (1L << i)) == 0) {
+                    sum += this.values[i];
+                    count++;
+                }
+            }
+
+            return (count > 0) ? sum / count : defaultValue;
+        }
+
+        /**
+         * null ではない要素の最小値を取得します。
+         *
+         * @param defaultValue null ではない要素がない場合のデフォルト値。
+         * @return 最小値。
+         */
+        public long min(long defaultValue) {
+            boolean found = false;
+            long min = 0;
+
+            for (int i = 0; i < this.size; i++) {
+                if ((this.nulls[i >>> 6] & (1L << i)) == 0 && (!found || this.values[i] < min)) {
+                    min = this.values[i];
+                    found = true;
+                }
+            }
+
+            return found ? min : defaultValue;
+        }
+
+        /**
+         * null ではない要素の最大値を取得します。
+         *
+         * @param defaultValue null ではない要素がない場合のデフォルト値。
+         * @return 最大値。
+         */
+        public long max(long defaultValue) {
+            boolean found = false;
+            long max = 0;
+
+            for (int i = 0; i < this.size; i++) {
+                if ((this.nulls[i >>> 6] & (1L << i)) == 0 && (!found || this.values[i] > max)) {
+                    max = this.values[i];
+                    found = true;
+                }
+            }
+
+            return found ? max : defaultValue;
+        }
+
+        /**
+         * 要素を List に変換します。
+         *
+         * @return 要素を保持する List 。
+         */
+        public List<Long> toList() {
+            List<Long> list = new ArrayList<>(this.size);
+
+            for (int i = 0; i < this.size; i++) {
+                list.add(getOrNull(i));
+            }
+
+            return list;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > this.values.length) {
+                int length = Math.max(capacity, this.values.length + (this.values.length >> 1) + 1);
+
+                this.values = Arrays.copyOf(this.values, length);
+                this.nulls = Arrays.copyOf(this.nulls, (length + 63) >>> 6);
+            }
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || this.size <= index) {
+                throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size);
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,430 @@
+package jp.tentus.commons.utils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Serializable オブジェクトをメモリマップトファイルに追記して保持するストアです。
+ * <p>
+ * 各レコードの位置は開いた時にレコードの長さだけを辿って索引にするため、起動時にデシリアライズは行われません。
+ * レコードは get で指定された時に、マップされた領域から直接デシリアライズされます。
+ * <p>
+ * <pre>{@code
+ *      try (SerializableStore store = SerializableStore.open(file)) {
+ *          int index = store.append(session);
+ *          Session session = store.getOrNull(index);
+ *      }
+ * }</pre>
+ * <p>
+ * ファイルはセグメント単位で拡張され、レコードはセグメントをまたぎません。
+ * 追記と読み込みは複数のスレッドから行えます。
+ * <p>
+ * 書き込んだ内容はプロセスが終了しても OS によってファイルへ反映されますが、OS の停止や電源断に対しては保証されません。
+ * マップされた領域のページがディスクへ書き出される順序は決まっていないため、
+ * force を呼び出す前に停止した場合は、内容が書き込まれていないレコードが読み込まれる事があります。
+ * <p>
+ * ファイルには Codec と Java のシリアライズのどちらで書き込んだかが記録され、異なる方法で開く事はできません。
+ */
+public final class SerializableStore implements Closeable {
+
+    /**
+     * デフォルトのセグメントのサイズ。
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Java のシリアライズで書き込んだファイルのマジックナンバー。
+     */
+    private static final int MAGIC = 0x54534552;
+
+    /**
+     * Codec で書き込んだファイルのマジックナンバー。
+     */
+    private static final int CODEC_MAGIC = 0x54534543;
+
+    /**
+     * ファイルの先頭に書き込む、マジックナンバーとセグメントのサイズの長さ。
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * レコードの長さを表す領域のサイズ。
+     */
+    private static final int LENGTH_SIZE = 4;
+
+    private final RandomAccessFile file;
+
+    private final FileChannel channel;
+
+    private final SerializableUtils.Codec codec;
+
+    private final int segmentSize;
+
+    /**
+     * マップ済みのセグメント。
+     */
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    /**
+     * 各レコードの長さの領域のファイル上の位置。
+     */
+    private long[] offsets = new long[16];
+
+    private int size;
+
+    /**
+     * 次のレコードを書き込むファイル上の位置。
+     */
+    private long tail = HEADER_SIZE;
+
+    private boolean closed;
+
+    private SerializableStore(File file, SerializableUtils.Codec codec, int segmentSize) throws IOException {
+        this.file = new RandomAccessFile(file, "rw");
+        this.channel = this.file.getChannel();
+        this.codec = codec;
+
+        int magic = (codec != null) ? CODEC_MAGIC : MAGIC;
+
+        try {
+            if (this.channel.size() < HEADER_SIZE) {
+                this.segmentSize = segmentSize;
+
+                ByteBuffer segment = segment(0);
+
+                segment.putInt(0, magic);
+                segment.putInt(4, segmentSize);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+                while (header.hasRemaining() && this.channel.read(header, header.position()) >= 0) {
+                    // ヘッダーを読み終わるまで繰り返します。
+                }
+
+                if (header.getInt(0) != magic) {
+                    if (header.getInt(0) == CODEC_MAGIC) {
+                        throw new IOException("File was written with a Codec.");
+                    } else if (header.getInt(0) == MAGIC) {
+                        throw new IOException("File was written with Java serialization.");
+                    }
+
+                    throw new IOException("File is not a SerializableStore.");
+                }
+
+                this.segmentSize = header.getInt(4);
+
+                if (this.segmentSize < HEADER_SIZE + LENGTH_SIZE) {
+                    throw new IOException("Invalid segment size: " + this.segmentSize);
+                }
+
+                scan();
+            }
+        } catch (IOException | RuntimeException ex) {
+            this.file.close();
+
+            throw ex;
+        }
+    }
+
+    /**
+     * ファイルを開きます。レコードは Java のシリアライズで書き込まれます。
+     * Codec で書き込まれたファイルは開けません。
+     *
+     * @param file 対象のファイル。存在しない場合は作成されます。
+     * @return 開かれたストア。
+     * @throws IOException ファイルを開けない場合。
+     */
+    public static SerializableStore open(File file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * Codec を指定してファイルを開きます。
+     * Codec を指定した場合と指定しない場合とで、書き込まれたファイルを互いに開く事はできません。
+     *
+     * @param file  対象のファイル。存在しない場合は作成されます。
+     * @param codec レコードの読み書きに使用する Codec 、null の場合は Java のシリアライズ。
+     * @return 開かれたストア。
+     * @throws IOException ファイルを開けない場合。
+     */
+    public static SerializableStore open(File file, SerializableUtils.Codec codec) throws IOException {
+        return open(file, codec, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Codec とセグメントのサイズを指定してファイルを開きます。
+     * 既存のファイルの場合、セグメントのサイズはファイルに記録されたものが使用されます。
+     *
+     * @param file        対象のファイル。存在しない場合は作成されます。
+     * @param codec       レコードの読み書きに使用する Codec 、null の場合は Java のシリアライズ。
+     * @param segmentSize 新しく作成する場合のセグメントのサイズ。1 レコードの最大サイズにもなります。
+     * @return 開かれたストア。
+     * @throws IOException ファイルを開けない場合。
+     */
+    public static SerializableStore open(File file, SerializableUtils.Codec codec, int segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE + LENGTH_SIZE) {
+            throw new IllegalArgumentException("segmentSize is too small.");
+        }
+
+        return new SerializableStore(file, codec, segmentSize);
+    }
+
+    /**
+     * オブジェクトを末尾に追記します。
+     *
+     * @param value 対象のオブジェクト。
+     * @return 追記したレコードの位置。
+     * @throws IOException 書き込み時に問題が生じた場合、またはレコードがセグメントに収まらない場合。
+     */
+    public synchronized int append(Serializable value) throws IOException {
+        ensureOpen();
+
+        byte[] bytes = (this.codec != null) ? this.codec.to(value) : SerializableUtils.to(value);
+        int required = LENGTH_SIZE + bytes.length;
+        int position = (int) (this.tail % this.segmentSize);
+
+        // 残りの領域に収まらない場合は次のセグメントへ移ります。マップ時に 0 で埋められているため、終端が記録されます。
+        if (this.segmentSize - position < required) {
+            if (this.segmentSize - HEADER_SIZE < required) {
+                throw new IOException("Record is too large. size: " + bytes.length + ", segmentSize: " + this.segmentSize);
+            }
+
+            this.tail += this.segmentSize - position;
+            position = 0;
+        }
+
+        int index = (int) (this.tail / this.segmentSize);
+        ByteBuffer segment = segment(index).duplicate();
+
+        // プロセスが書き込みの途中で中断しても終端として扱われるよう、長さは最後に書き込みます。
+        // ディスクへ書き出される順序は保証されないため、OS の停止に備える場合は force を呼び出します。
+        segment.position(position + LENGTH_SIZE);
+        segment.put(bytes);
+        segment.putInt(position, bytes.length);
+
+        return addOffset(this.tail, bytes.length);
+    }
+
+    /**
+     * レコードの数を返します。
+     *
+     * @return レコードの数。
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * 指定した位置のレコードをデシリアライズします。
+     *
+     * @param index レコードの位置。
+     * @param <T>   デシリアライズするオブジェクトの型。
+     * @return デシリアライズされたオブジェクト。
+     * @throws IOException 読み込み時に問題が生じた場合。
+     * @throws IndexOutOfBoundsException 位置がレコードの範囲外の場合。
+     */
+    public <T extends Serializable> T get(int index) throws IOException {
+        ByteBuffer record;
+
+        synchronized (this) {
+            ensureOpen();
+
+            if (index < 0 || this.size <= index) {
+                throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size);
+            }
+
+            long offset = this.offsets[index];
+            ByteBuffer segment = this.segments[(int) (offset / this.segmentSize)].duplicate();
+            int position = (int) (offset % this.segmentSize);
+
+            segment.position(position + LENGTH_SIZE);
+            segment.limit(position + LENGTH_SIZE + segment.getInt(position));
+
+            record = segment.slice();
+        }
+
+        if (this.codec != null) {
+            byte[] bytes = new byte[record.remaining()];
+
+            record.get(bytes);
+
+            return this.codec.from(bytes);
+        }
+
+        return SerializableUtils.from(new ByteBufferInputStream(record));
+    }
+
+    /**
+     * 指定した位置のレコードをデシリアライズします。
+     * <p>
+     * エラーが発生した場合、null を返します。
+     *
+     * @param index レコードの位置。
+     * @param <T>   デシリアライズするオブジェクトの型。
+     * @return デシリアライズされたオブジェクト。
+     */
+    public <T extends Serializable> T getOrNull(int index) {
+        return getOrElse(index, null);
+    }
+
+    /**
+     * 指定した位置のレコードをデシリアライズします。
+     * <p>
+     * エラーが発生した場合、defaultValue で指定した内容を返します。
+     *
+     * @param index        レコードの位置。
+     * @param defaultValue デフォルト値。
+     * @param <T>          デシリアライズするオブジェクトの型。
+     * @return デシリアライズされたオブジェクト。
+     */
+    public <T extends Serializable> T getOrElse(int index, T defaultValue) {
+        try {
+            return get(index);
+        } catch (IOException | IndexOutOfBoundsException ex) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 書き込んだ内容をディスクへ反映します。
+     * <p>
+     * マップしたすべてのセグメントを書き出すため、追記のたびではなく区切りのよい所で呼び出します。
+     * 呼び出す前に OS が停止した場合、それまでに追記したレコードは失われるか、壊れた内容で読み込まれる事があります。
+     */
+    public synchronized void force() {
+        for (MappedByteBuffer segment : this.segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * ストアを閉じます。
+     * <p>
+     * マップされた領域はガベージコレクションで解放されるまで残ります。
+     *
+     * @throws IOException ファイルを閉じる時に問題が生じた場合。
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+
+        force();
+
+        this.segments = new MappedByteBuffer[0];
+
+        this.file.close();
+    }
+
+    /**
+     * ファイルに記録されたレコードの長さを辿って索引を作成します。
+     *
+     * @throws IOException 読み込み時に問題が生じた場合。
+     */
+    private void scan() throws IOException {
+        long length = this.channel.size();
+        int count = (int) ((length + this.segmentSize - 1) / this.segmentSize);
+
+        for (int index = 0; index < count; index++) {
+            ByteBuffer segment = segment(index);
+            int position = (index == 0) ? HEADER_SIZE : 0;
+
+            while (position <= this.segmentSize - LENGTH_SIZE) {
+                int size = segment.getInt(position);
+
+                if (size <= 0 || this.segmentSize - position - LENGTH_SIZE < size) {
+                    break;
+                }
+
+                addOffset((long) index * this.segmentSize + position, size);
+
+                position += LENGTH_SIZE + size;
+            }
+        }
+    }
+
+    private int addOffset(long offset, int length) {
+        if (this.size == this.offsets.length) {
+            this.offsets = Arrays.copyOf(this.offsets, this.size << 1);
+        }
+
+        this.offsets[this.size] = offset;
+        this.tail = offset + LENGTH_SIZE + length;
+
+        return this.size++;
+    }
+
+    /**
+     * セグメントを取得します。マップされていない場合はファイルを拡張してマップします。
+     *
+     * @param index セグメントの位置。
+     * @return マップされたセグメント。
+     * @throws IOException マップできない場合。
+     */
+    private MappedByteBuffer segment(int index) throws IOException {
+        if (index >= this.segments.length) {
+            MappedByteBuffer[] segments = Arrays.copyOf(this.segments, index + 1);
+
+            for (int i = this.segments.length; i <= index; i++) {
+                segments[i] = this.channel.map(FileChannel.MapMode.READ_WRITE, (long) i * this.segmentSize, this.segmentSize);
+            }
+
+            this.segments = segments;
+        }
+
+        return this.segments[index];
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Store is closed.");
+        }
+    }
+
+    /**
+     * ByteBuffer の内容を読み込む InputStream 。
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? (this.buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int n = Math.min(len, this.buffer.remaining());
+
+            this.buffer.get(b, off, n);
+
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+
+    }
+
+}
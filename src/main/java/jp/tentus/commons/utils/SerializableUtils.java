@@ -1,12 +1,59 @@
 package jp.tentus.commons.utils;
 
 import java.io.*;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Serializable に関するコンビニエンスメソッドを提供します。
  */
 public final class SerializableUtils {
 
+    /**
+     * シリアライズに使用するバッファの初期サイズ。
+     */
+    private static final int INITIAL_BUFFER_SIZE = 512;
+
+    /**
+     * スレッドごとに保持し続けるバッファの最大サイズ。これを超えて拡張されたバッファは使用後に破棄します。
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * スレッドごとに再利用するシリアライズ用のバッファ。
+     */
+    private static final ThreadLocal<PooledOutputStream> OUTPUT_BUFFER = new ThreadLocal<>();
+
+    /**
+     * 一括でデシリアライズする際に、一つのタスクが受け持つ要素の最小数。
+     */
+    private static final int MIN_BULK_CHUNK_SIZE = 16;
+
+    /**
+     * クラスローダーごとの、クラス名から解決済みのクラスへのキャッシュ。
+     * <p>
+     * クラスローダーを解放できるよう、キーとクラスはどちらも弱参照で保持します。
+     */
+    private static final Map<ClassLoader, ConcurrentMap<String, Reference<Class<?>>>> RESOLVED_CLASSES = new WeakHashMap<>();
+
+    /**
+     * 指定したクラスローダーからクラスが見つからなかった事を表す値。
+     */
+    private static final Reference<Class<?>> CLASS_NOT_FOUND = new WeakReference<>(null);
+
+    /**
+     * 直前に使用したクラスローダーのキャッシュ。
+     */
+    private static volatile LastResolvedClasses lastResolvedClasses;
+
     private SerializableUtils() {
 
     }
@@ -196,25 +243,1630 @@ public final class SerializableUtils {
         return from(bytes, Thread.currentThread().getContextClassLoader());
     }
 
-    private static class ObjectFromClassLoaderInputStream extends ObjectInputStream {
+    /**
+     * 複数のバイナリを、ForkJoinPool の共通プールを使用して並列にデシリアライズします。
+     * <p>
+     * エラーが発生した要素は null になります。
+     *
+     * @param values 対象のバイナリのリスト。
+     * @param <T>    デシリアライズするオブジェクトの型。
+     * @return 入力と同じ順序でデシリアライズされたオブジェクトのリスト。
+     */
+    public static <T extends Serializable> List<T> fromAllOrNull(List<byte[]> values) {
+        return fromAllOrElse(values, null);
+    }
 
-        private ClassLoader classLoader;
+    /**
+     * 複数のバイナリを、ForkJoinPool の共通プールを使用して並列にデシリアライズします。
+     * <p>
+     * エラーが発生した要素は defaultValue で指定した内容になります。
+     *
+     * @param values       対象のバイナリのリスト。
+     * @param defaultValue デフォルト値。
+     * @param <T>          デシリアライズするオブジェクトの型。
+     * @return 入力と同じ順序でデシリアライズされたオブジェクトのリスト。
+     */
+    public static <T extends Serializable> List<T> fromAllOrElse(List<byte[]> values, T defaultValue) {
+        return fromAllOrElse(values, Thread.currentThread().getContextClassLoader(), defaultValue, ForkJoinPool.commonPool());
+    }
 
-        ObjectFromClassLoaderInputStream(InputStream in, ClassLoader classLoader) throws IOException {
-            super(in);
+    /**
+     * クラスローダーと Executor を指定して、複数のバイナリを並列にデシリアライズします。
+     * <p>
+     * 要素を一定数ごとのまとまりに分け、呼び出したスレッドと Executor のスレッドで分担して処理します。
+     * 呼び出したスレッドも処理を行うため、Executor が混み合っている場合や、タスクを受け付けない場合でも完了します。
+     * エラーが発生した要素は defaultValue で指定した内容になります。クラスの readObject が送出した実行時例外やエラーも同様です。
+     *
+     * @param values       対象のバイナリのリスト。
+     * @param classLoader  対象のクラスローダー。
+     * @param defaultValue デフォルト値。
+     * @param executor     処理を分担させる Executor 。
+     * @param <T>          デシリアライズするオブジェクトの型。
+     * @return 入力と同じ順序でデシリアライズされたオブジェクトのリスト。
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Serializable> List<T> fromAllOrElse(List<byte[]> values, ClassLoader classLoader, T defaultValue, Executor executor) {
+        byte[][] inputs = values.toArray(new byte[0][]);
+        Object[] results = new Object[inputs.length];
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int chunkSize = Math.max(MIN_BULK_CHUNK_SIZE, inputs.length / (parallelism * 4));
+        int chunks = (inputs.length + chunkSize - 1) / chunkSize;
+        int workers = Math.min(chunks, parallelism) - 1;
+
+        BulkDecoder decoder = new BulkDecoder(inputs, results, classLoader, defaultValue, chunkSize, chunks);
+
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(decoder);
+            } catch (RejectedExecutionException ex) {
+                // 受け付けられなかった分は、呼び出したスレッドが処理します。
+                break;
+            }
+        }
+
+        decoder.decode();
+        decoder.await();
+
+        List<T> list = new ArrayList<>(results.length);
+
+        for (Object result : results) {
+            list.add((T) result);
+        }
+
+        return list;
+    }
+
+    /**
+     * 入力ストリームに連続して書き込まれた Serializable オブジェクトを順にデシリアライズするイテレーターを返します。
+     * <p>
+     * 一つの ObjectOutputStream で writeObject を繰り返して書き込まれたストリームを対象とし、
+     * オブジェクトの境目でストリームの終わりに達するとイテレーターも終わります。オブジェクトは next が呼ばれるたびに一つずつ読み込まれます。
+     * 書き込み側で ObjectOutputStream.reset() を定期的に呼び出すと、読み込み側が保持する参照も解放されます。
+     * <p>
+     * 読み込み時の問題は UncheckedIOException として通知されます。オブジェクトの途中でストリームが途切れている場合も同様です。
+     *
+     * @param stream      入力ストリーム。イテレーターを閉じるか、最後まで読み込むと閉じられます。
+     * @param classLoader 対象のクラスローダー。
+     * @param <T>         デシリアライズするオブジェクトの型。
+     * @return オブジェクトのイテレーター。
+     */
+    public static <T extends Serializable> ObjectIterator<T> iterator(InputStream stream, ClassLoader classLoader) {
+        return new ObjectIterator<>(stream, classLoader);
+    }
+
+    /**
+     * デフォルトのクラスローダーを指定して、入力ストリームに連続して書き込まれた Serializable オブジェクトを
+     * 順にデシリアライズするイテレーターを返します。
+     *
+     * @param stream 入力ストリーム。イテレーターを閉じるか、最後まで読み込むと閉じられます。
+     * @param <T>    デシリアライズするオブジェクトの型。
+     * @return オブジェクトのイテレーター。
+     */
+    public static <T extends Serializable> ObjectIterator<T> iterator(InputStream stream) {
+        return iterator(stream, Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * 入力ストリームに連続して書き込まれた Serializable オブジェクトを順にデシリアライズする Spliterator を返します。
+     * <p>
+     * StreamSupport.stream と組み合わせて使用します。読み込みの規則は iterator と同じです。
+     *
+     * @param stream      入力ストリーム。
+     * @param classLoader 対象のクラスローダー。
+     * @param <T>         デシリアライズするオブジェクトの型。
+     * @return オブジェクトの Spliterator 。
+     */
+    public static <T extends Serializable> Spliterator<T> spliterator(InputStream stream, ClassLoader classLoader) {
+        return Spliterators.spliteratorUnknownSize(SerializableUtils.<T>iterator(stream, classLoader), Spliterator.ORDERED);
+    }
+
+    /**
+     * デフォルトのクラスローダーを指定して、入力ストリームに連続して書き込まれた Serializable オブジェクトを
+     * 順にデシリアライズする Spliterator を返します。
+     *
+     * @param stream 入力ストリーム。
+     * @param <T>    デシリアライズするオブジェクトの型。
+     * @return オブジェクトの Spliterator 。
+     */
+    public static <T extends Serializable> Spliterator<T> spliterator(InputStream stream) {
+        return spliterator(stream, Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Serializable オブジェクトをシリアライズします。
+     * <p>
+     * エラーが発生した場合、null を返します。
+     *
+     * @param value 対象のオブジェクト。
+     * @return シリアライズされたバイナリ。
+     */
+    public static byte[] toOrNull(Serializable value) {
+        return toOrElse(value, null);
+    }
+
+    /**
+     * Serializable オブジェクトをシリアライズします。
+     * <p>
+     * エラーが発生した場合、defaultValue で指定した内容を返します。
+     *
+     * @param value        対象のオブジェクト。
+     * @param defaultValue デフォルト値。
+     * @return シリアライズされたバイナリ。
+     */
+    public static byte[] toOrElse(Serializable value, byte[] defaultValue) {
+        try {
+            return to(value);
+        } catch (IOException ex) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Serializable オブジェクトをシリアライズします。
+     * <p>
+     * 書き込みにはスレッドごとに再利用されるバッファを使用し、結果の長さの配列のみを新しく生成します。
+     *
+     * @param value 対象のオブジェクト。
+     * @return シリアライズされたバイナリ。
+     * @throws IOException 書き込み時に問題が生じた場合。
+     */
+    public static byte[] to(Serializable value) throws IOException {
+        PooledOutputStream buffer = acquireBuffer();
+
+        try {
+            writeObject(value, buffer);
+
+            return buffer.toByteArray();
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * Serializable オブジェクトをシリアライズして、出力ストリームへ書き込みます。
+     * <p>
+     * シリアライズした内容は一度の write でストリームへ書き込まれます。ストリームは閉じません。
+     *
+     * @param value  対象のオブジェクト。
+     * @param stream 出力ストリーム。
+     * @throws IOException 書き込み時に問題が生じた場合。
+     */
+    public static void to(Serializable value, OutputStream stream) throws IOException {
+        PooledOutputStream buffer = acquireBuffer();
+
+        try {
+            writeObject(value, buffer);
+
+            buffer.writeTo(stream);
+            stream.flush();
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
 
+    /**
+     * Serializable オブジェクトをシリアライズして、ByteBuffer の現在の位置から書き込みます。
+     * <p>
+     * 書き込んだ分だけ ByteBuffer の位置を進めます。容量が足りない場合、ByteBuffer は変更されません。
+     *
+     * @param value  対象のオブジェクト。
+     * @param target 書き込み先の ByteBuffer 。
+     * @return 書き込んだバイト数。
+     * @throws IOException 書き込み時に問題が生じた場合、または ByteBuffer の残りの容量が足りない場合。
+     */
+    public static int to(Serializable value, ByteBuffer target) throws IOException {
+        PooledOutputStream buffer = acquireBuffer();
+
+        try {
+            writeObject(value, buffer);
+
+            int size = buffer.size();
+
+            if (target.remaining() < size) {
+                throw new IOException("ByteBuffer does not have enough space. required: " + size + ", remaining: " + target.remaining());
+            }
+
+            target.put(buffer.buffer(), 0, size);
+
+            return size;
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    private static void writeObject(Serializable value, OutputStream stream) throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(stream)) {
+            out.writeObject(value);
+        }
+    }
+
+    /**
+     * スレッドに割り当てられたバッファを取得します。
+     * writeObject の中から再帰的に呼び出された場合など、バッファが使用中の場合は新しく生成します。
+     *
+     * @return 空のバッファ。
+     */
+    private static PooledOutputStream acquireBuffer() {
+        PooledOutputStream buffer = OUTPUT_BUFFER.get();
+
+        if (buffer == null) {
+            buffer = new PooledOutputStream();
+
+            OUTPUT_BUFFER.set(buffer);
+        } else if (buffer.inUse) {
+            buffer = new PooledOutputStream();
+        } else {
+            buffer.reset();
+        }
+
+        buffer.inUse = true;
+
+        return buffer;
+    }
+
+    private static void releaseBuffer(PooledOutputStream buffer) {
+        buffer.inUse = false;
+
+        // 大きなオブジェクトを一度シリアライズしただけで、メモリを保持し続けないようにします。
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE && OUTPUT_BUFFER.get() == buffer) {
+            OUTPUT_BUFFER.remove();
+        }
+    }
+
+    /**
+     * 内部の配列を参照できる ByteArrayOutputStream 。
+     */
+    private static final class PooledOutputStream extends ByteArrayOutputStream {
+
+        /**
+         * 使用中かどうか。
+         */
+        private boolean inUse;
+
+        PooledOutputStream() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        byte[] buffer() {
+            return this.buf;
+        }
+
+        int capacity() {
+            return this.buf.length;
+        }
+
+    }
+
+    /**
+     * 登録した型を独自のバイナリ形式で読み書きする Codec のビルダを返します。
+     * <p>
+     * <pre>{@code
+     *      SerializableUtils.Codec codec = SerializableUtils.codec()
+     *              .register(1, Session.class)
+     *              .register(2, User.class)
+     *              .build();
+     *
+     *      byte[] bytes = codec.to(session);
+     *      Session session = codec.fromOrNull(bytes);
+     * }</pre>
+     *
+     * @return Codec のビルダ。
+     */
+    public static Codec.Builder codec() {
+        return new Codec.Builder();
+    }
+
+    /**
+     * デシリアライズ時のクラスの解決結果のキャッシュを消去します。
+     * <p>
+     * 見つからなかった結果もキャッシュするため、後からクラスローダーにクラスが追加される場合に使用します。
+     */
+    public static void clearClassCache() {
+        synchronized (RESOLVED_CLASSES) {
+            RESOLVED_CLASSES.clear();
+            lastResolvedClasses = null;
+        }
+    }
+
+    /**
+     * クラスローダーに対応するキャッシュを取得します。
+     * <p>
+     * 直前と同じクラスローダーの場合は、ロックを取得せずに返します。
+     *
+     * @param classLoader 対象のクラスローダー。
+     * @return クラス名から解決済みのクラスへのキャッシュ。
+     */
+    private static ConcurrentMap<String, Reference<Class<?>>> resolvedClasses(ClassLoader classLoader) {
+        LastResolvedClasses last = lastResolvedClasses;
+
+        if (last != null && classLoader != null && last.get() == classLoader) {
+            return last.classes;
+        }
+
+        synchronized (RESOLVED_CLASSES) {
+            ConcurrentMap<String, Reference<Class<?>>> classes = RESOLVED_CLASSES.get(classLoader);
+
+            if (classes == null) {
+                classes = new ConcurrentHashMap<>();
+
+                RESOLVED_CLASSES.put(classLoader, classes);
+            }
+
+            if (classLoader != null) {
+                lastResolvedClasses = new LastResolvedClasses(classLoader, classes);
+            }
+
+            return classes;
+        }
+    }
+
+    /**
+     * 直前に使用したクラスローダーとそのキャッシュの組。
+     * <p>
+     * クラスローダーを解放できるよう、クラスローダーは弱参照で保持します。
+     */
+    private static final class LastResolvedClasses extends WeakReference<ClassLoader> {
+
+        private final ConcurrentMap<String, Reference<Class<?>>> classes;
+
+        LastResolvedClasses(ClassLoader classLoader, ConcurrentMap<String, Reference<Class<?>>> classes) {
+            super(classLoader);
+
+            this.classes = classes;
+        }
+
+    }
+
+    /**
+     * 複数のバイナリを、まとまりごとに分担してデシリアライズするタスク。
+     */
+    private static final class BulkDecoder implements Runnable {
+
+        private final byte[][] inputs;
+
+        private final Object[] results;
+
+        private final ClassLoader classLoader;
+
+        private final Serializable defaultValue;
+
+        private final int chunkSize;
+
+        /**
+         * 次に処理するまとまりの位置。
+         */
+        private final AtomicInteger nextChunk = new AtomicInteger();
+
+        /**
+         * 処理を終えたまとまりを数えるラッチ。
+         * <p>
+         * タスクではなくまとまりを数えるため、すべてのまとまりが取得された後に開始したタスクや、
+         * 開始されなかったタスクを待つ事はありません。
+         */
+        private final CountDownLatch done;
+
+        private final int chunks;
+
+        BulkDecoder(byte[][] inputs, Object[] results, ClassLoader classLoader, Serializable defaultValue, int chunkSize, int chunks) {
+            this.inputs = inputs;
+            this.results = results;
             this.classLoader = classLoader;
+            this.defaultValue = defaultValue;
+            this.chunkSize = chunkSize;
+            this.chunks = chunks;
+            this.done = new CountDownLatch(chunks);
         }
 
         @Override
-        protected Class resolveClass(ObjectStreamClass v) throws IOException, ClassNotFoundException {
+        public void run() {
+            decode();
+        }
+
+        /**
+         * 残っているまとまりがなくなるまでデシリアライズします。
+         */
+        void decode() {
+            int length = this.inputs.length;
+            int chunk;
+
+            while ((chunk = this.nextChunk.getAndIncrement()) < this.chunks) {
+                int from = chunk * this.chunkSize;
+                int to = Math.min(from + this.chunkSize, length);
+
+                try {
+                    for (int i = from; i < to; i++) {
+                        this.results[i] = decode(this.inputs[i]);
+                    }
+                } finally {
+                    this.done.countDown();
+                }
+            }
+        }
+
+        /**
+         * 一つの要素をデシリアライズします。
+         * <p>
+         * 残りの要素の処理を続けられるよう、クラスの readObject が送出した実行時例外やエラーもデフォルト値に置き換えます。
+         *
+         * @param bytes 対象のバイナリ。
+         * @return デシリアライズされたオブジェクト、エラーが発生した場合はデフォルト値。
+         */
+        private Object decode(byte[] bytes) {
+            if (bytes == null) {
+                return this.defaultValue;
+            }
+
             try {
-                return Class.forName(v.getName(), false, this.classLoader);
-            } catch (ClassNotFoundException ex) {
-                return super.resolveClass(v);
+                return fromOrElse(bytes, this.classLoader, this.defaultValue);
+            } catch (RuntimeException | Error ex) {
+                return this.defaultValue;
+            }
+        }
+
+        /**
+         * すべてのまとまりの処理が終わるのを待ちます。割り込まれた場合も待ち続け、割り込み状態を復元します。
+         */
+        void await() {
+            boolean interrupted = false;
+
+            while (true) {
+                try {
+                    this.done.await();
+
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
             }
         }
 
     }
 
+    /**
+     * 一つのストリームから Serializable オブジェクトを順にデシリアライズするイテレーター。
+     * <p>
+     * ストリームのヘッダーとクラスの解決結果は、すべてのオブジェクトで共有されます。スレッドセーフではありません。
+     *
+     * @param <T> デシリアライズするオブジェクトの型。
+     */
+    public static final class ObjectIterator<T extends Serializable> implements Iterator<T>, Closeable {
+
+        /**
+         * オブジェクトの境目でストリームの終わりを確認するため、TC_RESET と続く 1 バイトを先読みできるようにしたストリーム。
+         */
+        private final PushbackInputStream stream;
+
+        private final ClassLoader classLoader;
+
+        private ObjectInputStream in;
+
+        /**
+         * 先読みしたオブジェクト。
+         */
+        private T next;
+
+        /**
+         * 先読みしたオブジェクトがあるかどうか。
+         */
+        private boolean fetched;
+
+        private boolean finished;
+
+        ObjectIterator(InputStream stream, ClassLoader classLoader) {
+            this.stream = new PushbackInputStream(stream, 2);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!this.fetched && !this.finished) {
+                fetch();
+            }
+
+            return this.fetched;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            T value = this.next;
+
+            this.next = null;
+            this.fetched = false;
+
+            return value;
+        }
+
+        /**
+         * ストリームを閉じます。
+         *
+         * @throws IOException ストリームを閉じる時に問題が生じた場合。
+         */
+        @Override
+        public void close() throws IOException {
+            this.finished = true;
+            this.fetched = false;
+            this.next = null;
+
+            if (this.in != null) {
+                this.in.close();
+            } else {
+                this.stream.close();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void fetch() {
+            try {
+                if (isEnd()) {
+                    closeQuietly();
+
+                    return;
+                }
+
+                if (this.in == null) {
+                    this.in = new ObjectFromClassLoaderInputStream(this.stream, this.classLoader);
+                }
+
+                this.next = (T) this.in.readObject();
+                this.fetched = true;
+            } catch (IOException ex) {
+                closeQuietly();
+
+                throw new UncheckedIOException(ex);
+            } catch (ClassNotFoundException ex) {
+                closeQuietly();
+
+                throw new UncheckedIOException(new IOException("Class can not be found using class loader.", ex));
+            }
+        }
+
+        /**
+         * オブジェクトの境目でストリームの終わりに達しているかどうかを返します。
+         * <p>
+         * ObjectInputStream はオブジェクトを読み終えた後に先読みしないため、1 バイトを読んで戻すことで確認できます。
+         * 境目以外で終わりに達した場合は、readObject が EOFException を送出します。
+         * <p>
+         * オブジェクトごとに ObjectOutputStream.reset() を呼び出したストリームは TC_RESET で終わるため、
+         * ヘッダーの後の TC_RESET は読み飛ばしてから確認します。続きがある場合は、参照の表を消去させるため TC_RESET を一つ戻します。
+         *
+         * @return ストリームの終わりに達している場合は true 。
+         * @throws IOException 読み込み時に問題が生じた場合。
+         */
+        private boolean isEnd() throws IOException {
+            boolean reset = false;
+            int b = this.stream.read();
+
+            while (b == ObjectStreamConstants.TC_RESET && this.in != null) {
+                reset = true;
+                b = this.stream.read();
+            }
+
+            if (b < 0) {
+                return true;
+            }
+
+            this.stream.unread(b);
+
+            if (reset) {
+                this.stream.unread(ObjectStreamConstants.TC_RESET);
+            }
+
+            return false;
+        }
+
+        private void closeQuietly() {
+            try {
+                close();
+            } catch (IOException ex) {
+                // 読み込みは終わっているため、閉じる時の問題は無視します。
+            }
+        }
+
+    }
+
+    private static class ObjectFromClassLoaderInputStream extends ObjectInputStream {
+
+        private ClassLoader classLoader;
+
+        private ConcurrentMap<String, Reference<Class<?>>> resolvedClasses;
+
+        ObjectFromClassLoaderInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+            super(in);
+
+            this.classLoader = classLoader;
+            this.resolvedClasses = resolvedClasses(classLoader);
+        }
+
+        @Override
+        protected Class resolveClass(ObjectStreamClass v) throws IOException, ClassNotFoundException {
+            String name = v.getName();
+            Reference<Class<?>> resolved = this.resolvedClasses.get(name);
+
+            if (resolved == CLASS_NOT_FOUND) {
+                return super.resolveClass(v);
+            } else if (resolved != null) {
+                Class<?> clazz = resolved.get();
+
+                if (clazz != null) {
+                    return clazz;
+                }
+            }
+
+            try {
+                Class<?> clazz = Class.forName(name, false, this.classLoader);
+
+                this.resolvedClasses.put(name, new WeakReference<Class<?>>(clazz));
+
+                return clazz;
+            } catch (ClassNotFoundException ex) {
+                this.resolvedClasses.put(name, CLASS_NOT_FOUND);
+
+                return super.resolveClass(v);
+            }
+        }
+
+    }
+
+    /**
+     * 登録した型を、型 ID と事前に解析したフィールドの並びで読み書きするコーデック。
+     * <p>
+     * ObjectOutputStream と異なりクラスの記述子を書き込まないため、出力は小さく、読み込みも高速です。
+     * 登録する型は引数のないコンストラクタ (可視性は問いません) を持つ必要があり、
+     * static と transient を除くすべてのフィールドを読み書きします。
+     * 読み込み時はそのコンストラクタでオブジェクトを生成するため、transient なフィールドはコンストラクタで設定された値になります。
+     * <p>
+     * フィールドの値が String, プリミティブのラッパー, byte[], ArrayList, 登録された型のいずれでもない場合は、
+     * その値だけを Java のシリアライズで書き込みます。循環参照は扱えません。
+     * <p>
+     * 生成後は不変であるため、複数のスレッドで共有できます。
+     */
+    public static final class Codec {
+
+        private static final int FORMAT_VERSION = 1;
+
+        /**
+         * 型 ID の最大値。
+         */
+        private static final int MAX_TYPE_ID = 0xFFFF;
+
+        /**
+         * 入れ子の最大の深さ。循環参照を検出するために使用します。
+         */
+        private static final int MAX_DEPTH = 512;
+
+        private static final int TAG_NULL = 0;
+
+        private static final int TAG_OBJECT = 1;
+
+        private static final int TAG_STRING = 2;
+
+        private static final int TAG_INTEGER = 3;
+
+        private static final int TAG_LONG = 4;
+
+        private static final int TAG_TRUE = 5;
+
+        private static final int TAG_FALSE = 6;
+
+        private static final int TAG_DOUBLE = 7;
+
+        private static final int TAG_FLOAT = 8;
+
+        private static final int TAG_SHORT = 9;
+
+        private static final int TAG_BYTE = 10;
+
+        private static final int TAG_CHARACTER = 11;
+
+        private static final int TAG_BYTES = 12;
+
+        private static final int TAG_LIST = 13;
+
+        private static final int TAG_SERIALIZED = 14;
+
+        private static final int KIND_OBJECT = 0;
+
+        private static final int KIND_BOOLEAN = 1;
+
+        private static final int KIND_BYTE = 2;
+
+        private static final int KIND_SHORT = 3;
+
+        private static final int KIND_CHAR = 4;
+
+        private static final int KIND_INT = 5;
+
+        private static final int KIND_LONG = 6;
+
+        private static final int KIND_FLOAT = 7;
+
+        private static final int KIND_DOUBLE = 8;
+
+        /**
+         * スレッドごとに再利用する書き込み用のバッファ。
+         */
+        private static final ThreadLocal<Output> OUTPUT = new ThreadLocal<>();
+
+        /**
+         * クラスから型の情報への対応。
+         */
+        private final Map<Class<?>, Layout> layoutsByClass;
+
+        /**
+         * 型 ID を添字とした型の情報。
+         */
+        private final Layout[] layoutsById;
+
+        private Codec(Map<Class<?>, Layout> layoutsByClass, Layout[] layoutsById) {
+            this.layoutsByClass = layoutsByClass;
+            this.layoutsById = layoutsById;
+        }
+
+        /**
+         * オブジェクトを書き込みます。
+         * <p>
+         * エラーが発生した場合、null を返します。
+         *
+         * @param value 対象のオブジェクト。
+         * @return 書き込まれたバイナリ。
+         */
+        public byte[] toOrNull(Serializable value) {
+            return toOrElse(value, null);
+        }
+
+        /**
+         * オブジェクトを書き込みます。
+         * <p>
+         * エラーが発生した場合、defaultValue で指定した内容を返します。
+         *
+         * @param value        対象のオブジェクト。
+         * @param defaultValue デフォルト値。
+         * @return 書き込まれたバイナリ。
+         */
+        public byte[] toOrElse(Serializable value, byte[] defaultValue) {
+            try {
+                return to(value);
+            } catch (IOException ex) {
+                return defaultValue;
+            }
+        }
+
+        /**
+         * オブジェクトを書き込みます。
+         *
+         * @param value 対象のオブジェクト。
+         * @return 書き込まれたバイナリ。
+         * @throws IOException 書き込めない値が含まれていた場合。
+         */
+        public byte[] to(Serializable value) throws IOException {
+            Output out = acquireOutput();
+
+            try {
+                write(value, out);
+
+                return Arrays.copyOf(out.buffer, out.count);
+            } finally {
+                releaseOutput(out);
+            }
+        }
+
+        /**
+         * オブジェクトを書き込み、出力ストリームへ書き込みます。ストリームは閉じません。
+         *
+         * @param value  対象のオブジェクト。
+         * @param stream 出力ストリーム。
+         * @throws IOException 書き込めない値が含まれていた場合、または書き込み時に問題が生じた場合。
+         */
+        public void to(Serializable value, OutputStream stream) throws IOException {
+            Output out = acquireOutput();
+
+            try {
+                write(value, out);
+
+                stream.write(out.buffer, 0, out.count);
+                stream.flush();
+            } finally {
+                releaseOutput(out);
+            }
+        }
+
+        /**
+         * オブジェクトを読み込みます。
+         * <p>
+         * エラーが発生した場合、null を返します。
+         *
+         * @param bytes 対象のバイナリ。
+         * @param <T>   読み込むオブジェクトの型。
+         * @return 読み込まれたオブジェクト。
+         */
+        public <T extends Serializable> T fromOrNull(byte[] bytes) {
+            return fromOrElse(bytes, null);
+        }
+
+        /**
+         * オブジェクトを読み込みます。
+         * <p>
+         * エラーが発生した場合、null を返します。
+         *
+         * @param stream 入力ストリーム。
+         * @param <T>    読み込むオブジェクトの型。
+         * @return 読み込まれたオブジェクト。
+         */
+        public <T extends Serializable> T fromOrNull(InputStream stream) {
+            return fromOrElse(stream, null);
+        }
+
+        /**
+         * オブジェクトを読み込みます。
+         * <p>
+         * エラーが発生した場合、defaultValue で指定した内容を返します。
+         *
+         * @param bytes        対象のバイナリ。
+         * @param defaultValue デフォルト値。
+         * @param <T>          読み込むオブジェクトの型。
+         * @return 読み込まれたオブジェクト。
+         */
+        public <T extends Serializable> T fromOrElse(byte[] bytes, T defaultValue) {
+            try {
+                return from(bytes);
+            } catch (IOException ex) {
+                return defaultValue;
+            }
+        }
+
+        /**
+         * オブジェクトを読み込みます。
+         * <p>
+         * エラーが発生した場合、defaultValue で指定した内容を返します。
+         *
+         * @param stream       入力ストリーム。
+         * @param defaultValue デフォルト値。
+         * @param <T>          読み込むオブジェクトの型。
+         * @return 読み込まれたオブジェクト。
+         */
+        public <T extends Serializable> T fromOrElse(InputStream stream, T defaultValue) {
+            try {
+                return from(stream);
+            } catch (IOException ex) {
+                return defaultValue;
+            }
+        }
+
+        /**
+         * オブジェクトを読み込みます。
+         *
+         * @param bytes 対象のバイナリ。
+         * @param <T>   読み込むオブジェクトの型。
+         * @return 読み込まれたオブジェクト。
+         * @throws IOException 読み込み時に問題が生じた場合。
+         */
+        public <T extends Serializable> T from(byte[] bytes) throws IOException {
+            return from(bytes, 0, bytes.length);
+        }
+
+        /**
+         * バイナリの指定した範囲からオブジェクトを読み込みます。
+         *
+         * @param bytes  対象のバイナリ。
+         * @param offset 読み込みを開始する位置。
+         * @param length 読み込む長さ。
+         * @param <T>    読み込むオブジェクトの型。
+         * @return 読み込まれたオブジェクト。
+         * @throws IOException 読み込み時に問題が生じた場合。
+         */
+        @SuppressWarnings("unchecked")
+        public <T extends Serializable> T from(byte[] bytes, int offset, int length) throws IOException {
+            Input in = new Input(bytes, offset, offset + length);
+
+            if (in.readByte() != FORMAT_VERSION) {
+                throw new IOException("Unsupported format.");
+            }
+
+            Object value = readValue(in, 0);
+
+            if (in.position != in.limit) {
+                throw new IOException("Unexpected trailing bytes.");
+            }
+
+            return (T) value;
+        }
+
+        /**
+         * 入力ストリームの終わりまでを読み込み、オブジェクトを読み込みます。ストリームは閉じません。
+         *
+         * @param stream 入力ストリーム。
+         * @param <T>    読み込むオブジェクトの型。
+         * @return 読み込まれたオブジェクト。
+         * @throws IOException 読み込み時に問題が生じた場合。
+         */
+        public <T extends Serializable> T from(InputStream stream) throws IOException {
+            Output out = acquireOutput();
+
+            try {
+                int read;
+
+                while ((read = stream.read(out.buffer, out.count, out.buffer.length - out.count)) >= 0) {
+                    out.count += read;
+                    out.ensure(1);
+                }
+
+                return from(out.buffer, 0, out.count);
+            } finally {
+                releaseOutput(out);
+            }
+        }
+
+        private void write(Object value, Output out) throws IOException {
+            out.writeByte(FORMAT_VERSION);
+
+            writeValue(value, out, 0);
+        }
+
+        private void writeValue(Object value, Output out, int depth) throws IOException {
+            if (value == null) {
+                out.writeByte(TAG_NULL);
+
+                return;
+            }
+
+            Class<?> clazz = value.getClass();
+            Layout layout = this.layoutsByClass.get(clazz);
+
+            if (layout != null) {
+                if (depth > MAX_DEPTH) {
+                    throw new IOException("Object graph is too deep or has a cycle.");
+                }
+
+                out.writeByte(TAG_OBJECT);
+                out.writeVarInt(layout.id);
+
+                writeFields(value, layout, out, depth + 1);
+            } else if (clazz == String.class) {
+                out.writeByte(TAG_STRING);
+                out.writeString((String) value);
+            } else if (clazz == Integer.class) {
+                out.writeByte(TAG_INTEGER);
+                out.writeSignedVarInt((Integer) value);
+            } else if (clazz == Long.class) {
+                out.writeByte(TAG_LONG);
+                out.writeSignedVarLong((Long) value);
+            } else if (clazz == Boolean.class) {
+                out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+            } else if (clazz == Double.class) {
+                out.writeByte(TAG_DOUBLE);
+                out.writeLong(Double.doubleToRawLongBits((Double) value));
+            } else if (clazz == Float.class) {
+                out.writeByte(TAG_FLOAT);
+                out.writeInt(Float.floatToRawIntBits((Float) value));
+            } else if (clazz == Short.class) {
+                out.writeByte(TAG_SHORT);
+                out.writeSignedVarInt((Short) value);
+            } else if (clazz == Byte.class) {
+                out.writeByte(TAG_BYTE);
+                out.writeByte((Byte) value);
+            } else if (clazz == Character.class) {
+                out.writeByte(TAG_CHARACTER);
+                out.writeVarInt((Character) value);
+            } else if (clazz == byte[].class) {
+                byte[] bytes = (byte[]) value;
+
+                out.writeByte(TAG_BYTES);
+                out.writeVarInt(bytes.length);
+                out.writeBytes(bytes, 0, bytes.length);
+            } else if (clazz == ArrayList.class) {
+                if (depth > MAX_DEPTH) {
+                    throw new IOException("Object graph is too deep or has a cycle.");
+                }
+
+                List<?> list = (List<?>) value;
+                int size = list.size();
+
+                out.writeByte(TAG_LIST);
+                out.writeVarInt(size);
+
+                for (int i = 0; i < size; i++) {
+                    writeValue(list.get(i), out, depth + 1);
+                }
+            } else if (value instanceof Serializable) {
+                // 登録されていない型は、その値だけを Java のシリアライズで書き込みます。
+                byte[] bytes = SerializableUtils.to((Serializable) value);
+
+                out.writeByte(TAG_SERIALIZED);
+                out.writeVarInt(bytes.length);
+                out.writeBytes(bytes, 0, bytes.length);
+            } else {
+                throw new NotSerializableException(clazz.getName());
+            }
+        }
+
+        private void writeFields(Object value, Layout layout, Output out, int depth) throws IOException {
+            try {
+                Field[] fields = layout.fields;
+                int[] kinds = layout.kinds;
+
+                for (int i = 0; i < fields.length; i++) {
+                    Field field = fields[i];
+
+                    switch (kinds[i]) {
+                        case KIND_BOOLEAN:
+                            out.writeByte(field.getBoolean(value) ? 1 : 0);
+                            break;
+                        case KIND_BYTE:
+                            out.writeByte(field.getByte(value));
+                            break;
+                        case KIND_SHORT:
+                            out.writeSignedVarInt(field.getShort(value));
+                            break;
+                        case KIND_CHAR:
+                            out.writeVarInt(field.getChar(value));
+                            break;
+                        case KIND_INT:
+                            out.writeSignedVarInt(field.getInt(value));
+                            break;
+                        case KIND_LONG:
+                            out.writeSignedVarLong(field.getLong(value));
+                            break;
+                        case KIND_FLOAT:
+                            out.writeInt(Float.floatToRawIntBits(field.getFloat(value)));
+                            break;
+                        case KIND_DOUBLE:
+                            out.writeLong(Double.doubleToRawLongBits(field.getDouble(value)));
+                            break;
+                        default:
+                            writeValue(field.get(value), out, depth);
+                            break;
+                    }
+                }
+            } catch (IllegalAccessException ex) {
+                throw new IOException("Could not access field of " + layout.clazz.getName() + ".", ex);
+            }
+        }
+
+        private Object readValue(Input in, int depth) throws IOException {
+            int tag = in.readByte();
+
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_OBJECT: {
+                    int id = in.readVarInt();
+                    Layout layout = (0 <= id && id < this.layoutsById.length) ? this.layoutsById[id] : null;
+
+                    if (layout == null) {
+                        throw new IOException("Unknown type id: " + id);
+                    }
+
+                    if (depth > MAX_DEPTH) {
+                        throw new IOException("Object graph is too deep.");
+                    }
+
+                    return readFields(layout, in, depth + 1);
+                }
+                case TAG_STRING:
+                    return in.readString();
+                case TAG_INTEGER:
+                    return in.readSignedVarInt();
+                case TAG_LONG:
+                    return in.readSignedVarLong();
+                case TAG_TRUE:
+                    return Boolean.TRUE;
+                case TAG_FALSE:
+                    return Boolean.FALSE;
+                case TAG_DOUBLE:
+                    return Double.longBitsToDouble(in.readLong());
+                case TAG_FLOAT:
+                    return Float.intBitsToFloat(in.readInt());
+                case TAG_SHORT:
+                    return (short) in.readSignedVarInt();
+                case TAG_BYTE:
+                    return (byte) in.readByte();
+                case TAG_CHARACTER:
+                    return (char) in.readVarInt();
+                case TAG_BYTES: {
+                    int length = in.readLength();
+                    byte[] bytes = Arrays.copyOfRange(in.buffer, in.position, in.position + length);
+
+                    in.position += length;
+
+                    return bytes;
+                }
+                case TAG_LIST: {
+                    if (depth > MAX_DEPTH) {
+                        throw new IOException("Object graph is too deep.");
+                    }
+
+                    int size = in.readLength();
+                    ArrayList<Object> list = new ArrayList<>(size);
+
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue(in, depth + 1));
+                    }
+
+                    return list;
+                }
+                case TAG_SERIALIZED: {
+                    int length = in.readLength();
+                    Object value = SerializableUtils.from(new ByteArrayInputStream(in.buffer, in.position, length));
+
+                    in.position += length;
+
+                    return value;
+                }
+                default:
+                    throw new IOException("Unknown tag: " + tag);
+            }
+        }
+
+        private Object readFields(Layout layout, Input in, int depth) throws IOException {
+            try {
+                Object value = layout.constructor.newInstance();
+                Field[] fields = layout.fields;
+                int[] kinds = layout.kinds;
+
+                for (int i = 0; i < fields.length; i++) {
+                    Field field = fields[i];
+
+                    switch (kinds[i]) {
+                        case KIND_BOOLEAN:
+                            field.setBoolean(value, in.readByte() != 0);
+                            break;
+                        case KIND_BYTE:
+                            field.setByte(value, (byte) in.readByte());
+                            break;
+                        case KIND_SHORT:
+                            field.setShort(value, (short) in.readSignedVarInt());
+                            break;
+                        case KIND_CHAR:
+                            field.setChar(value, (char) in.readVarInt());
+                            break;
+                        case KIND_INT:
+                            field.setInt(value, in.readSignedVarInt());
+                            break;
+                        case KIND_LONG:
+                            field.setLong(value, in.readSignedVarLong());
+                            break;
+                        case KIND_FLOAT:
+                            field.setFloat(value, Float.intBitsToFloat(in.readInt()));
+                            break;
+                        case KIND_DOUBLE:
+                            field.setDouble(value, Double.longBitsToDouble(in.readLong()));
+                            break;
+                        default:
+                            field.set(value, readValue(in, depth));
+                            break;
+                    }
+                }
+
+                return value;
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+                throw new IOException("Could not instantiate " + layout.clazz.getName() + ".", ex);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Field type mismatch in " + layout.clazz.getName() + ".", ex);
+            }
+        }
+
+        private static Output acquireOutput() {
+            Output out = OUTPUT.get();
+
+            if (out == null) {
+                out = new Output();
+
+                OUTPUT.set(out);
+            } else if (out.inUse) {
+                out = new Output();
+            } else {
+                out.count = 0;
+            }
+
+            out.inUse = true;
+
+            return out;
+        }
+
+        private static void releaseOutput(Output out) {
+            out.inUse = false;
+
+            if (out.buffer.length > MAX_RETAINED_BUFFER_SIZE && OUTPUT.get() == out) {
+                OUTPUT.remove();
+            }
+        }
+
+        /**
+         * Codec を生成するビルダ。
+         */
+        public static final class Builder {
+
+            private final Map<Class<?>, Layout> layoutsByClass = new HashMap<>();
+
+            private final Map<Integer, Layout> layoutsById = new HashMap<>();
+
+            private int maxId = -1;
+
+            Builder() {
+
+            }
+
+            /**
+             * 型を登録します。
+             * <p>
+             * 型 ID は書き込まれたバイナリに含まれるため、同じ型には常に同じ ID を割り当てる必要があります。
+             *
+             * @param id    0 から 65535 までの型 ID 。
+             * @param clazz 登録する型。
+             * @return このオブジェクト。
+             * @throws IllegalArgumentException ID や型が重複している場合、または型を初期化できない場合。
+             */
+            public Builder register(int id, Class<? extends Serializable> clazz) {
+                if (id < 0 || MAX_TYPE_ID < id) {
+                    throw new IllegalArgumentException("id must be between 0 and " + MAX_TYPE_ID + ".");
+                } else if (this.layoutsById.containsKey(id)) {
+                    throw new IllegalArgumentException("id " + id + " is already registered.");
+                } else if (this.layoutsByClass.containsKey(clazz)) {
+                    throw new IllegalArgumentException(clazz.getName() + " is already registered.");
+                } else if (clazz.isInterface() || clazz.isArray() || Modifier.isAbstract(clazz.getModifiers())) {
+                    throw new IllegalArgumentException(clazz.getName() + " is not a concrete class.");
+                }
+
+                Layout layout = new Layout(id, clazz);
+
+                this.layoutsByClass.put(clazz, layout);
+                this.layoutsById.put(id, layout);
+                this.maxId = Math.max(this.maxId, id);
+
+                return this;
+            }
+
+            /**
+             * 登録した型で Codec を生成します。
+             *
+             * @return 生成された Codec 。
+             */
+            public Codec build() {
+                Layout[] layoutsById = new Layout[this.maxId + 1];
+
+                for (Layout layout : this.layoutsById.values()) {
+                    layoutsById[layout.id] = layout;
+                }
+
+                return new Codec(new IdentityHashMap<>(this.layoutsByClass), layoutsById);
+            }
+
+        }
+
+        /**
+         * 登録された型のフィールドの並び。
+         */
+        private static final class Layout {
+
+            private final int id;
+
+            private final Class<?> clazz;
+
+            private final Constructor<?> constructor;
+
+            private final Field[] fields;
+
+            private final int[] kinds;
+
+            Layout(int id, Class<?> clazz) {
+                this.id = id;
+                this.clazz = clazz;
+
+                try {
+                    this.constructor = clazz.getDeclaredConstructor();
+                    this.constructor.setAccessible(true);
+                } catch (NoSuchMethodException ex) {
+                    throw new IllegalArgumentException(clazz.getName() + " does not have a no-arg constructor.", ex);
+                }
+
+                // スーパークラスのフィールドから順に、クラスごとに名前順で並べます。
+                List<Class<?>> hierarchy = new ArrayList<>();
+
+                for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+                    hierarchy.add(0, c);
+                }
+
+                List<Field> fields = new ArrayList<>();
+
+                for (Class<?> c : hierarchy) {
+                    List<Field> declared = new ArrayList<>();
+
+                    for (Field field : c.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+
+                        if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                            field.setAccessible(true);
+                            declared.add(field);
+                        }
+                    }
+
+                    Collections.sort(declared, new Comparator<Field>() {
+
+                        @Override
+                        public int compare(Field a, Field b) {
+                            return a.getName().compareTo(b.getName());
+                        }
+
+                    });
+
+                    fields.addAll(declared);
+                }
+
+                this.fields = fields.toArray(new Field[0]);
+                this.kinds = new int[this.fields.length];
+
+                for (int i = 0; i < this.fields.length; i++) {
+                    this.kinds[i] = kindOf(this.fields[i].getType());
+                }
+            }
+
+            private static int kindOf(Class<?> type) {
+                if (type == boolean.class) {
+                    return KIND_BOOLEAN;
+                } else if (type == byte.class) {
+                    return KIND_BYTE;
+                } else if (type == short.class) {
+                    return KIND_SHORT;
+                } else if (type == char.class) {
+                    return KIND_CHAR;
+                } else if (type == int.class) {
+                    return KIND_INT;
+                } else if (type == long.class) {
+                    return KIND_LONG;
+                } else if (type == float.class) {
+                    return KIND_FLOAT;
+                } else if (type == double.class) {
+                    return KIND_DOUBLE;
+                } else {
+                    return KIND_OBJECT;
+                }
+            }
+
+        }
+
+        /**
+         * 拡張可能な書き込み用のバッファ。
+         */
+        private static final class Output {
+
+            private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+            private int count;
+
+            private boolean inUse;
+
+            void ensure(int length) {
+                if (this.buffer.length - this.count < length) {
+                    this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length << 1, this.count + length));
+                }
+            }
+
+            void writeByte(int value) {
+                ensure(1);
+
+                this.buffer[this.count++] = (byte) value;
+            }
+
+            void writeBytes(byte[] bytes, int offset, int length) {
+                ensure(length);
+
+                System.arraycopy(bytes, offset, this.buffer, this.count, length);
+
+                this.count += length;
+            }
+
+            void writeVarInt(int value) {
+                ensure(5);
+
+                while ((value & ~0x7F) != 0) {
+                    this.buffer[this.count++] = (byte) ((value & 0x7F) | 0x80);
+                    value >>>= 7;
+                }
+
+                this.buffer[this.count++] = (byte) value;
+            }
+
+            void writeSignedVarInt(int value) {
+                writeVarInt((value << 1) ^ (value >> 31));
+            }
+
+            void writeSignedVarLong(long value) {
+                ensure(10);
+
+                long v = (value << 1) ^ (value >> 63);
+
+                while ((v & ~0x7FL) != 0) {
+                    this.buffer[this.count++] = (byte) ((v & 0x7F) | 0x80);
+                    v >>>= 7;
+                }
+
+                this.buffer[this.count++] = (byte) v;
+            }
+
+            void writeInt(int value) {
+                ensure(4);
+
+                byte[] b = this.buffer;
+                int i = this.count;
+
+                b[i] = (byte) (value >>> 24);
+                b[i + 1] = (byte) (value >>> 16);
+                b[i + 2] = (byte) (value >>> 8);
+                b[i + 3] = (byte) value;
+
+                this.count = i + 4;
+            }
+
+            void writeLong(long value) {
+                writeInt((int) (value >>> 32));
+                writeInt((int) value);
+            }
+
+            /**
+             * 文字数と、各文字を修正 UTF-8 と同様に 1 から 3 バイトで書き込みます。
+             *
+             * @param value 書き込む文字列。
+             */
+            void writeString(String value) {
+                int length = value.length();
+
+                writeVarInt(length);
+                ensure(length * 3);
+
+                byte[] b = this.buffer;
+                int i = this.count;
+
+                for (int j = 0; j < length; j++) {
+                    char c = value.charAt(j);
+
+                    if (c < 0x80) {
+                        b[i++] = (byte) c;
+                    } else if (c < 0x800) {
+                        b[i++] = (byte) (0xC0 | (c >> 6));
+                        b[i++] = (byte) (0x80 | (c & 0x3F));
+                    } else {
+                        b[i++] = (byte) (0xE0 | (c >> 12));
+                        b[i++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                        b[i++] = (byte) (0x80 | (c & 0x3F));
+                    }
+                }
+
+                this.count = i;
+            }
+
+        }
+
+        /**
+         * 読み込み用のバイナリの範囲。
+         */
+        private static final class Input {
+
+            private final byte[] buffer;
+
+            private int position;
+
+            private final int limit;
+
+            Input(byte[] buffer, int offset, int limit) {
+                if (offset < 0 || offset > limit || limit > buffer.length) {
+                    throw new IndexOutOfBoundsException("offset: " + offset + ", limit: " + limit + ", length: " + buffer.length);
+                }
+
+                this.buffer = buffer;
+                this.position = offset;
+                this.limit = limit;
+            }
+
+            int readByte() throws IOException {
+                if (this.position >= this.limit) {
+                    throw new EOFException();
+                }
+
+                return this.buffer[this.position++] & 0xFF;
+            }
+
+            int readVarInt() throws IOException {
+                int result = 0;
+
+                for (int shift = 0; shift < 35; shift += 7) {
+                    int b = readByte();
+
+                    result |= (b & 0x7F) << shift;
+
+                    if ((b & 0x80) == 0) {
+                        return result;
+                    }
+                }
+
+                throw new IOException("Malformed variable-length integer.");
+            }
+
+            int readSignedVarInt() throws IOException {
+                int value = readVarInt();
+
+                return (value >>> 1) ^ -(value & 1);
+            }
+
+            long readSignedVarLong() throws IOException {
+                long result = 0;
+
+                for (int shift = 0; shift < 70; shift += 7) {
+                    int b = readByte();
+
+                    result |= (long) (b & 0x7F) << shift;
+
+                    if ((b & 0x80) == 0) {
+                        return (result >>> 1) ^ -(result & 1);
+                    }
+                }
+
+                throw new IOException("Malformed variable-length integer.");
+            }
+
+            int readInt() throws IOException {
+                if (this.limit - this.position < 4) {
+                    throw new EOFException();
+                }
+
+                byte[] b = this.buffer;
+                int i = this.position;
+
+                this.position = i + 4;
+
+                return ((b[i] & 0xFF) << 24) | ((b[i + 1] & 0xFF) << 16) | ((b[i + 2] & 0xFF) << 8) | (b[i + 3] & 0xFF);
+            }
+
+            long readLong() throws IOException {
+                return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+            }
+
+            /**
+             * 長さを読み込み、残りのバイト数を超えていないか確認します。
+             *
+             * @return 読み込んだ長さ。
+             * @throws IOException 長さが不正な場合。
+             */
+            int readLength() throws IOException {
+                int length = readVarInt();
+
+                if (length < 0 || this.limit - this.position < length) {
+                    throw new EOFException();
+                }
+
+                return length;
+            }
+
+            String readString() throws IOException {
+                int length = readLength();
+                char[] chars = new char[length];
+
+                for (int j = 0; j < length; j++) {
+                    int c = readByte();
+
+                    if (c >= 0x80) {
+                        if (c < 0xE0) {
+                            c = ((c & 0x1F) << 6) | (readByte() & 0x3F);
+                        } else {
+                            c = ((c & 0x0F) << 12) | ((readByte() & 0x3F) << 6) | (readByte() & 0x3F);
+                        }
+                    }
+
+                    chars[j] = (char) c;
+                }
+
+                return new String(chars);
+            }
+
+        }
+
+    }
+
 }
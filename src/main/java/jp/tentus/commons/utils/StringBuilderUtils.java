@@ -1,6 +1,8 @@
 package jp.tentus.commons.utils;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -8,6 +10,31 @@ import java.util.List;
  */
 public final class StringBuilderUtils {
 
+    /**
+     * プールに戻す StringBuilder の最大の容量 (文字数) 。これより大きいものは破棄されます。
+     */
+    public static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    /**
+     * プールから生成する StringBuilder の初期容量。
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * スレッドごとに保持する StringBuilder の最大数。入れ子で借りた場合に備えて複数保持します。
+     */
+    private static final int MAX_POOLED_BUILDERS = 4;
+
+    /**
+     * スレッドごとの StringBuilder のプール。
+     */
+    private static final ThreadLocal<BuilderPool> POOL = new ThreadLocal<BuilderPool>() {
+        @Override
+        protected BuilderPool initialValue() {
+            return new BuilderPool();
+        }
+    };
+
     private StringBuilderUtils() {
 
     }
@@ -50,37 +77,109 @@ public final class StringBuilderUtils {
      * @return セパレーター文字で分割された文字列を保持するリスト。
      */
     public static List<String> splitNewArrayList(StringBuilder s, String separator) {
+        if (separator.length() == 1) {
+            return splitNewArrayList(s, separator.charAt(0));
+        }
+
+        return splitNewArrayList(s, Separator.cached(separator));
+    }
+
+    /**
+     * StringBuilder をコンパイル済みのセパレーターで分割したリストを新しく生成します。
+     * <p>
+     * 同じセパレーターで繰り返し分割する場合は、Separator.of で生成したものを使い回す事で前処理を省けます。
+     *
+     * @param s         対象の StringBuilder 。
+     * @param separator コンパイル済みのセパレーター。
+     * @return セパレーターで分割された文字列を保持するリスト。
+     */
+    public static List<String> splitNewArrayList(StringBuilder s, Separator separator) {
         List<String> list = new ArrayList<>();
 
         int comp = separator.length();
         int len = s.length();
-        int limit = len - comp;
-        int index = 0;
         int from = 0;
+        int index;
 
-        while (index <= limit) {
-            int i;
+        while ((index = separator.indexOf(s, from, len)) >= 0) {
+            list.add(s.substring(from, index));
+            from = index + comp;
+        }
 
-            for (i = 0; i < comp; i++) {
-                if (s.charAt(index + i) != separator.charAt(i)) {
-                    break;
-                }
-            }
+        list.add(s.substring(from, len));
 
-            if (i == comp) {
-                list.add(s.substring(from, index));
-                from = index + comp;
-                index += comp;
-            } else {
-                index++;
+        return list;
+    }
+
+    /**
+     * 文字列を指定した文字で分割し、各要素の範囲をコールバックへ渡します。
+     * <p>
+     * splitNewArrayList と同じ規則で分割しますが、要素ごとの文字列やリストを生成しません。
+     *
+     * @param s         対象の文字列。
+     * @param separator セパレーター文字。
+     * @param consumer  要素の範囲を受け取るコールバック。
+     * @return 要素の数。
+     */
+    public static int split(CharSequence s, char separator, RangeConsumer consumer) {
+        int count = 0;
+        int fromIndex = 0;
+        int len = s.length();
+
+        for (int currentIndex = 0; currentIndex < len; currentIndex++) {
+            if (s.charAt(currentIndex) == separator) {
+                consumer.accept(s, fromIndex, currentIndex);
+                fromIndex = currentIndex + 1;
+                count++;
             }
         }
 
-        if (from <= index) {
-            list.add(s.substring(from, len));
-        }
+        consumer.accept(s, fromIndex, len);
 
-        return list;
+        return count + 1;
+    }
+
+    /**
+     * 文字列を指定した文字で分割するカーソルを生成します。
+     * <p>
+     * カーソルは reset で別の文字列に使い回せるため、分割を繰り返してもオブジェクトを生成しません。
+     * <p>
+     * <pre>{@code
+     *      StringBuilderUtils.SplitCursor cursor = StringBuilderUtils.cursor(s, '|');
+     *
+     *      while (cursor.next()) {
+     *          if (cursor.contentEquals("ERROR")) { ... }
+     *      }
+     * }</pre>
+     *
+     * @param s         対象の文字列。
+     * @param separator セパレーター文字。
+     * @return 最初の要素の前に位置するカーソル。
+     */
+    public static SplitCursor cursor(CharSequence s, char separator) {
+        return new SplitCursor().reset(s, separator);
+    }
+
+    /**
+     * 文字列を指定した文字列で分割するカーソルを生成します。
+     *
+     * @param s         対象の文字列。
+     * @param separator セパレーター文字列。
+     * @return 最初の要素の前に位置するカーソル。
+     */
+    public static SplitCursor cursor(CharSequence s, String separator) {
+        return new SplitCursor().reset(s, separator);
+    }
+
+    /**
+     * 文字列をコンパイル済みのセパレーターで分割するカーソルを生成します。
+     *
+     * @param s         対象の文字列。
+     * @param separator コンパイル済みのセパレーター。
+     * @return 最初の要素の前に位置するカーソル。
+     */
+    public static SplitCursor cursor(CharSequence s, Separator separator) {
+        return new SplitCursor().reset(s, separator);
     }
 
     /**
@@ -115,7 +214,13 @@ public final class StringBuilderUtils {
      * @return 結合された文字列。
      */
     public static StringBuilder join(String... values) {
-        StringBuilder builder = new StringBuilder();
+        int capacity = 0;
+
+        for (String value : values) {
+            capacity += (value != null) ? value.length() : 4;
+        }
+
+        StringBuilder builder = new StringBuilder(capacity);
 
         for (String value : values) {
             builder.append(value);
@@ -124,4 +229,555 @@ public final class StringBuilderUtils {
         return builder;
     }
 
+    /**
+     * 文字列を区切り文字列でつないで結合します。
+     *
+     * @param separator 区切り文字列。
+     * @param values    結合する文字列。
+     * @return 結合された文字列。
+     */
+    public static StringBuilder joinWith(String separator, String... values) {
+        if (values.length == 0) {
+            return new StringBuilder();
+        }
+
+        int capacity = separator.length() * (values.length - 1);
+
+        for (String value : values) {
+            capacity += (value != null) ? value.length() : 4;
+        }
+
+        return join(new StringBuilder(capacity), separator, values);
+    }
+
+    /**
+     * 文字列を区切り文字列でつないで、StringBuilder の末尾に追加します。
+     *
+     * @param out       追加先の StringBuilder 。
+     * @param separator 区切り文字列。
+     * @param values    結合する文字列。
+     * @return out 。
+     */
+    public static StringBuilder join(StringBuilder out, CharSequence separator, CharSequence... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(separator);
+            }
+
+            out.append(values[i]);
+        }
+
+        return out;
+    }
+
+    /**
+     * 文字列を区切り文字列でつないで、Appendable (Writer など) へ順に書き込みます。
+     * <p>
+     * 結合した文字列を中間に生成しません。
+     *
+     * @param out       書き込み先。
+     * @param separator 区切り文字列。
+     * @param values    結合する文字列。
+     * @param <A>       書き込み先の型。
+     * @return out 。
+     * @throws IOException 書き込み時に問題が生じた場合。
+     */
+    public static <A extends Appendable> A join(A out, CharSequence separator, CharSequence... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(separator);
+            }
+
+            out.append(values[i]);
+        }
+
+        return out;
+    }
+
+    /**
+     * 文字列を区切り文字列でつないで、Appendable (Writer など) へ順に書き込みます。
+     * <p>
+     * 結合した文字列を中間に生成しません。
+     *
+     * @param out       書き込み先。
+     * @param separator 区切り文字列。
+     * @param values    結合する文字列。
+     * @param <A>       書き込み先の型。
+     * @return out 。
+     * @throws IOException 書き込み時に問題が生じた場合。
+     */
+    public static <A extends Appendable> A join(A out, CharSequence separator, Iterable<? extends CharSequence> values) throws IOException {
+        boolean first = true;
+
+        for (CharSequence value : values) {
+            if (!first) {
+                out.append(separator);
+            }
+
+            out.append(value);
+            first = false;
+        }
+
+        return out;
+    }
+
+    /**
+     * 現在のスレッドのプールから空の StringBuilder を借ります。
+     * <p>
+     * 使い終わったら release または toStringAndRelease で返却してください。返却した後の StringBuilder は使用できません。
+     * 返却しなかった場合は、通常の StringBuilder と同様にガベージコレクションで回収されます。
+     * <p>
+     * <pre>{@code
+     *      StringBuilder builder = StringBuilderUtils.acquire();
+     *
+     *      builder.append(key).append('=').append(value);
+     *
+     *      return StringBuilderUtils.toStringAndRelease(builder);
+     * }</pre>
+     *
+     * @return 長さ 0 の StringBuilder 。
+     */
+    public static StringBuilder acquire() {
+        BuilderPool pool = POOL.get();
+
+        if (pool.size == 0) {
+            return new StringBuilder(INITIAL_CAPACITY);
+        }
+
+        StringBuilder builder = pool.builders[--pool.size];
+
+        pool.builders[pool.size] = null;
+
+        return builder;
+    }
+
+    /**
+     * 借りた StringBuilder を現在のスレッドのプールへ返却します。
+     * <p>
+     * 容量が MAX_RETAINED_CAPACITY を超えたものは、メモリを保持し続けないようプールへ戻さずに破棄します。
+     * 既にプールへ返却済みのものを再び返却した場合は、同じインスタンスを二重に貸し出さないよう無視します。
+     *
+     * @param builder 返却する StringBuilder 。
+     */
+    public static void release(StringBuilder builder) {
+        if (builder == null || builder.capacity() > MAX_RETAINED_CAPACITY) {
+            return;
+        }
+
+        BuilderPool pool = POOL.get();
+
+        for (int i = 0; i < pool.size; i++) {
+            if (pool.builders[i] == builder) {
+                return;
+            }
+        }
+
+        if (pool.size < MAX_POOLED_BUILDERS) {
+            builder.setLength(0);
+
+            pool.builders[pool.size++] = builder;
+        }
+    }
+
+    /**
+     * 借りた StringBuilder を文字列にして、プールへ返却します。
+     *
+     * @param builder 返却する StringBuilder 。
+     * @return StringBuilder の内容。
+     */
+    public static String toStringAndRelease(StringBuilder builder) {
+        String value = builder.toString();
+
+        release(builder);
+
+        return value;
+    }
+
+    /**
+     * 分割された要素の範囲を受け取るコールバック。
+     */
+    public interface RangeConsumer {
+
+        /**
+         * 要素の範囲を受け取ります。
+         *
+         * @param s     分割対象の文字列。
+         * @param start 要素の開始位置。
+         * @param end   要素の終了位置 (この位置の文字は含みません) 。
+         */
+        void accept(CharSequence s, int start, int end);
+
+    }
+
+    /**
+     * 文字列を分割した要素を、元の文字列への参照のまま順に指すカーソル。
+     * <p>
+     * カーソル自身が現在の要素を表す CharSequence として振る舞うため、
+     * IntegerUtils.parseInt などへ部分文字列を生成せずに渡す事ができます。
+     * スレッドセーフではありません。
+     */
+    public static final class SplitCursor implements CharSequence {
+
+        /**
+         * 分割対象の文字列。
+         */
+        private CharSequence source;
+
+        /**
+         * セパレーター文字。
+         */
+        private char separatorChar;
+
+        /**
+         * セパレーター文字列、文字で分割する場合は null 。
+         */
+        private Separator separator;
+
+        /**
+         * 現在の要素の開始位置。
+         */
+        private int start;
+
+        /**
+         * 現在の要素の終了位置。
+         */
+        private int end;
+
+        /**
+         * 次の要素の開始位置、最後の要素まで進んでいる場合は -1 。
+         */
+        private int position = -1;
+
+        /**
+         * 文字で分割するようにカーソルを初期化します。
+         *
+         * @param s         対象の文字列。
+         * @param separator セパレーター文字。
+         * @return このオブジェクト。
+         */
+        public SplitCursor reset(CharSequence s, char separator) {
+            this.source = s;
+            this.separatorChar = separator;
+            this.separator = null;
+            this.start = 0;
+            this.end = 0;
+            this.position = 0;
+
+            return this;
+        }
+
+        /**
+         * 文字列で分割するようにカーソルを初期化します。
+         *
+         * @param s         対象の文字列。
+         * @param separator セパレーター文字列。
+         * @return このオブジェクト。
+         */
+        public SplitCursor reset(CharSequence s, String separator) {
+            if (separator.length() == 1) {
+                return reset(s, separator.charAt(0));
+            }
+
+            return reset(s, Separator.cached(separator));
+        }
+
+        /**
+         * コンパイル済みのセパレーターで分割するようにカーソルを初期化します。
+         *
+         * @param s         対象の文字列。
+         * @param separator コンパイル済みのセパレーター。
+         * @return このオブジェクト。
+         */
+        public SplitCursor reset(CharSequence s, Separator separator) {
+            this.source = s;
+            this.separator = separator;
+            this.start = 0;
+            this.end = 0;
+            this.position = 0;
+
+            return this;
+        }
+
+        /**
+         * 次の要素へ進みます。
+         *
+         * @return 次の要素がある場合 true, それ以外は false 。
+         */
+        public boolean next() {
+            if (this.position < 0) {
+                return false;
+            }
+
+            CharSequence s = this.source;
+            int len = s.length();
+            int from = this.position;
+            int found = (this.separator == null) ? indexOf(s, this.separatorChar, from, len) : this.separator.indexOf(s, from, len);
+
+            this.start = from;
+
+            if (found < 0) {
+                this.end = len;
+                this.position = -1;
+            } else {
+                this.end = found;
+                this.position = found + ((this.separator == null) ? 1 : this.separator.length());
+            }
+
+            return true;
+        }
+
+        /**
+         * 現在の要素の開始位置を返します。
+         *
+         * @return 元の文字列における開始位置。
+         */
+        public int start() {
+            return this.start;
+        }
+
+        /**
+         * 現在の要素の終了位置を返します。
+         *
+         * @return 元の文字列における終了位置 (この位置の文字は含みません) 。
+         */
+        public int end() {
+            return this.end;
+        }
+
+        /**
+         * 現在の要素が指定した文字列と等しいか確認します。
+         *
+         * @param value 比較する文字列。
+         * @return 等しい場合 true, それ以外は false 。
+         */
+        public boolean contentEquals(CharSequence value) {
+            int len = this.end - this.start;
+
+            if (value == null || value.length() != len) {
+                return false;
+            }
+
+            CharSequence s = this.source;
+
+            for (int i = 0; i < len; i++) {
+                if (s.charAt(this.start + i) != value.charAt(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public int length() {
+            return this.end - this.start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= this.end - this.start) {
+                throw new IndexOutOfBoundsException("index: " + index + ", length: " + (this.end - this.start));
+            }
+
+            return this.source.charAt(this.start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || start > end || end > this.end - this.start) {
+                throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + (this.end - this.start));
+            }
+
+            return this.source.subSequence(this.start + start, this.start + end);
+        }
+
+        /**
+         * 現在の要素を新しい文字列として返します。
+         *
+         * @return 現在の要素の文字列。
+         */
+        @Override
+        public String toString() {
+            return this.source.subSequence(this.start, this.end).toString();
+        }
+
+        private static int indexOf(CharSequence s, char c, int from, int len) {
+            for (int i = from; i < len; i++) {
+                if (s.charAt(i) == c) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+    }
+
+    /**
+     * 前処理済みの複数文字のセパレーター。
+     * <p>
+     * Horspool 法のずらし表を保持し、文字列の長さを n 、セパレーターの長さを m とした場合に、
+     * 平均してほぼ O(n / m) で検索します。不変であるため、複数のスレッドで共有できます。
+     */
+    public static final class Separator {
+
+        /**
+         * ずらし表の大きさ。文字は下位 8 ビットで振り分けます。
+         */
+        private static final int TABLE_SIZE = 256;
+
+        /**
+         * コンパイル済みのセパレーターのキャッシュの大きさ。2 のべき乗である必要があります。
+         */
+        private static final int CACHE_SIZE = 16;
+
+        /**
+         * 最近コンパイルしたセパレーターを、文字列のハッシュ値で振り分けて保持するキャッシュ。
+         * <p>
+         * Separator は不変であるため、同期せずに読み書きしても、他のスレッドから構築途中の状態は見えません。
+         * 同じ位置に振り分けられたセパレーター同士は、後からコンパイルしたもので置き換えます。
+         */
+        private static final Separator[] CACHE = new Separator[CACHE_SIZE];
+
+        /**
+         * セパレーターの文字。
+         */
+        private final char[] pattern;
+
+        /**
+         * 末尾の文字が一致しなかった場合に進める量。
+         */
+        private final int[] shift;
+
+        private Separator(String separator) {
+            int m = separator.length();
+
+            this.pattern = separator.toCharArray();
+            this.shift = new int[TABLE_SIZE];
+
+            Arrays.fill(this.shift, m);
+
+            // 同じ位置に振り分けられる文字同士では、小さい方の量を採用します。
+            for (int i = 0; i < m - 1; i++) {
+                this.shift[this.pattern[i] & (TABLE_SIZE - 1)] = m - 1 - i;
+            }
+        }
+
+        /**
+         * セパレーターをコンパイルします。
+         *
+         * @param separator セパレーター文字列。
+         * @return コンパイル済みのセパレーター。
+         * @throws IllegalArgumentException separator が空文字列の場合。
+         */
+        public static Separator of(String separator) {
+            if (separator.isEmpty()) {
+                throw new IllegalArgumentException("separator must not be empty.");
+            }
+
+            return new Separator(separator);
+        }
+
+        /**
+         * 最近使用したセパレーターであれば、コンパイル済みのものを再利用します。
+         * <p>
+         * 複数のセパレーターを交互に使用する場合も、振り分け先が異なる限りコンパイルし直しません。
+         *
+         * @param separator セパレーター文字列。
+         * @return コンパイル済みのセパレーター。
+         */
+        static Separator cached(String separator) {
+            int hash = separator.hashCode();
+            int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+            Separator cached = CACHE[slot];
+
+            if (cached != null && cached.contentEquals(separator)) {
+                return cached;
+            }
+
+            return CACHE[slot] = of(separator);
+        }
+
+        /**
+         * セパレーターの長さを返します。
+         *
+         * @return セパレーターの文字数。
+         */
+        public int length() {
+            return this.pattern.length;
+        }
+
+        /**
+         * 文字列からセパレーターを検索します。
+         *
+         * @param s         検索する文字列。
+         * @param fromIndex 検索を開始する位置。
+         * @return 最初に見つかった位置、見つからない場合は -1 。
+         */
+        public int indexOf(CharSequence s, int fromIndex) {
+            return indexOf(s, fromIndex, s.length());
+        }
+
+        int indexOf(CharSequence s, int fromIndex, int len) {
+            char[] pattern = this.pattern;
+            int[] shift = this.shift;
+            int last = pattern.length - 1;
+            char lastChar = pattern[last];
+            int limit = len - last;
+
+            for (int index = Math.max(fromIndex, 0); index < limit; ) {
+                char c = s.charAt(index + last);
+
+                if (c == lastChar) {
+                    int i = 0;
+
+                    while (i < last && s.charAt(index + i) == pattern[i]) {
+                        i++;
+                    }
+
+                    if (i == last) {
+                        return index;
+                    }
+                }
+
+                index += shift[c & (TABLE_SIZE - 1)];
+            }
+
+            return -1;
+        }
+
+        private boolean contentEquals(String separator) {
+            int m = this.pattern.length;
+
+            if (separator.length() != m) {
+                return false;
+            }
+
+            for (int i = 0; i < m; i++) {
+                if (this.pattern[i] != separator.charAt(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return new String(this.pattern);
+        }
+
+    }
+
+    /**
+     * スレッドごとに保持する StringBuilder 。
+     */
+    private static final class BuilderPool {
+
+        private final StringBuilder[] builders = new StringBuilder[MAX_POOLED_BUILDERS];
+
+        private int size;
+
+    }
+
 }
@@ -1,5 +1,6 @@
 package jp.tentus.commons.utils;
 
+import java.util.Arrays;
 import java.util.Locale;
 
 /**
@@ -7,6 +8,11 @@ import java.util.Locale;
  */
 public class StringUtils {
 
+    /**
+     * Character.isWhitespace が true を返す、0x20 以下の文字のビット。
+     */
+    private static final long ASCII_WHITESPACES = (0x1FL << 9) | (0x1FL << 28);
+
     /**
      * StringBuilder を文字列にします。
      *
@@ -32,6 +38,24 @@ public class StringUtils {
         }
     }
 
+    /**
+     * StringBuilder を文字列にします。
+     * <p>
+     * pool に同じ内容の文字列がある場合はその文字列を返し、新しい文字列は生成しません。
+     *
+     * @param s            文字列にする StringBuilder 。
+     * @param defaultValue デフォルトの文字列。
+     * @param pool         文字列を共有するプール、null の場合は常に新しい文字列を生成します。
+     * @return 文字列から生成した文字列, StringBuilder が null の場合は defaultValue 。
+     */
+    public static String from(StringBuilder s, String defaultValue, Pool pool) {
+        if (s == null) {
+            return defaultValue;
+        }
+
+        return (pool != null) ? pool.from(s) : s.toString();
+    }
+
     /**
      * 文字列がブランクであるかどうか確認します。
      *
@@ -39,23 +63,19 @@ public class StringUtils {
      * @return ブランクである場合 true, それ以外は false 。
      */
     public static boolean isBlank(CharSequence value) {
-        int length;
-
-        if (value == null || 0 == (length = value.length())) {
+        if (value == null) {
             return true;
         }
 
-        int startIndex = 0;
-
-        while ((startIndex < length) && Character.isWhitespace(value.charAt(startIndex))) {
-            startIndex++;
-        }
+        int length = value.length();
 
-        while ((startIndex < length) && Character.isWhitespace(value.charAt(length - 1))) {
-            length--;
+        for (int i = 0; i < length; i++) {
+            if (!isWhitespace(value.charAt(i))) {
+                return false;
+            }
         }
 
-        return startIndex == length;
+        return true;
     }
 
     /**
@@ -129,11 +149,15 @@ public class StringUtils {
      * @return 小文字にした文字列。
      */
     public static String toLowerCase(String value, String defaultValue, Locale locale) {
-        if (value != null) {
-            return value.toLowerCase(locale);
-        } else {
+        if (value == null) {
             return defaultValue;
         }
+
+        if (!isAsciiCaseInvariant(locale)) {
+            return value.toLowerCase(locale);
+        }
+
+        return convertAsciiCase(value, 'A', locale, false);
     }
 
     /**
@@ -177,11 +201,223 @@ public class StringUtils {
      * @return 大文字にした文字列。
      */
     public static String toUpperCase(String value, String defaultValue, Locale locale) {
-        if (value != null) {
-            return value.toUpperCase(locale);
-        } else {
+        if (value == null) {
             return defaultValue;
         }
+
+        if (!isAsciiCaseInvariant(locale)) {
+            return value.toUpperCase(locale);
+        }
+
+        return convertAsciiCase(value, 'a', locale, true);
+    }
+
+    /**
+     * ASCII の範囲の文字を変換します。ASCII 以外の文字が含まれる場合は String の変換を使用します。
+     * <p>
+     * 変換する文字がない場合は、同じインスタンスを返します。
+     *
+     * @param value  対象の文字列。
+     * @param from   変換する文字の範囲の先頭 ('A' または 'a') 。
+     * @param locale 対象のロケール。
+     * @param upper  大文字にする場合 true 。
+     * @return 変換した文字列。
+     */
+    private static String convertAsciiCase(String value, char from, Locale locale, boolean upper) {
+        int length = value.length();
+        int index = 0;
+
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+
+            if (c >= 0x80) {
+                return upper ? value.toUpperCase(locale) : value.toLowerCase(locale);
+            }
+
+            if ((char) (c - from) < 26) {
+                break;
+            }
+        }
+
+        if (index == length) {
+            return value;
+        }
+
+        char[] chars = value.toCharArray();
+
+        for (; index < length; index++) {
+            char c = chars[index];
+
+            if (c >= 0x80) {
+                return upper ? value.toUpperCase(locale) : value.toLowerCase(locale);
+            }
+
+            if ((char) (c - from) < 26) {
+                chars[index] = (char) (c ^ 0x20);
+            }
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * ASCII の範囲の大文字と小文字の対応が、ロケールによって変わらないかどうかを確認します。
+     *
+     * @param locale 対象のロケール。
+     * @return トルコ語、アゼルバイジャン語以外の場合 true 。
+     */
+    private static boolean isAsciiCaseInvariant(Locale locale) {
+        if (locale == Locale.US || locale == Locale.ROOT || locale == Locale.ENGLISH) {
+            return true;
+        }
+
+        String language = locale.getLanguage();
+
+        return !"tr".equals(language) && !"az".equals(language);
+    }
+
+    /**
+     * Character.isWhitespace と同じ判定を、ASCII の範囲は分岐のみで行います。
+     *
+     * @param c 対象の文字。
+     * @return 空白文字の場合 true 。
+     */
+    private static boolean isWhitespace(char c) {
+        if (c <= ' ') {
+            return (ASCII_WHITESPACES & (1L << c)) != 0;
+        }
+
+        return c >= 0x80 && Character.isWhitespace(c);
+    }
+
+    /**
+     * 同じ内容の文字列を共有するためのプールです。
+     * <p>
+     * CharSequence のハッシュ値と内容をその場で比較し、プールにない場合だけ新しい文字列を生成します。
+     * プールは固定長の表で、同じ位置に入る文字列は新しいもので置き換えられるため、保持する文字列の数は容量を超えません。
+     * ロックを使用せず、複数のスレッドから使用できます。
+     * <p>
+     * <pre>{@code
+     *      StringUtils.Pool pool = new StringUtils.Pool(4096);
+     *
+     *      String value = StringUtils.from(builder, null, pool);
+     * }</pre>
+     */
+    public static final class Pool {
+
+        /**
+         * デフォルトの共有する文字列の最大の長さ。
+         */
+        public static final int DEFAULT_MAX_LENGTH = 64;
+
+        private final String[] table;
+
+        private final int mask;
+
+        private final int maxLength;
+
+        /**
+         * プールを作成します。
+         *
+         * @param capacity 保持する文字列の最大数。2 の累乗に切り上げられます。
+         */
+        public Pool(int capacity) {
+            this(capacity, DEFAULT_MAX_LENGTH);
+        }
+
+        /**
+         * プールを作成します。
+         *
+         * @param capacity  保持する文字列の最大数。2 の累乗に切り上げられます。
+         * @param maxLength 共有する文字列の最大の長さ。これより長い文字列は常に新しく生成します。
+         */
+        public Pool(int capacity, int maxLength) {
+            if (capacity <= 0 || capacity > (1 << 30)) {
+                throw new IllegalArgumentException("capacity is out of range: " + capacity);
+            }
+
+            int size = Integer.highestOneBit(capacity);
+
+            if (size < capacity) {
+                size <<= 1;
+            }
+
+            this.table = new String[size];
+            this.mask = size - 1;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * CharSequence と同じ内容の文字列を得ます。
+         *
+         * @param s 対象の文字列。
+         * @return プールにある文字列、ない場合は新しく生成した文字列。s が null の場合は null 。
+         */
+        public String from(CharSequence s) {
+            return (s != null) ? from(s, 0, s.length()) : null;
+        }
+
+        /**
+         * CharSequence の指定した範囲と同じ内容の文字列を得ます。
+         *
+         * @param s          対象の文字列。
+         * @param beginIndex 範囲の開始位置。
+         * @param endIndex   範囲の終了位置 (この位置は含まれません) 。
+         * @return プールにある文字列、ない場合は新しく生成した文字列。
+         * @throws IndexOutOfBoundsException 範囲が不正な場合。
+         */
+        public String from(CharSequence s, int beginIndex, int endIndex) {
+            if (beginIndex < 0 || endIndex > s.length() || beginIndex > endIndex) {
+                throw new IndexOutOfBoundsException("begin " + beginIndex + ", end " + endIndex + ", length " + s.length());
+            }
+
+            int length = endIndex - beginIndex;
+
+            if (length > this.maxLength) {
+                return s.subSequence(beginIndex, endIndex).toString();
+            }
+
+            // String#hashCode と同じ値になるよう計算し、プールの文字列にキャッシュされたハッシュ値と比較します。
+            int hash = 0;
+
+            for (int i = beginIndex; i < endIndex; i++) {
+                hash = 31 * hash + s.charAt(i);
+            }
+
+            int index = (hash ^ (hash >>> 16)) & this.mask;
+            String cached = this.table[index];
+
+            if (cached != null && cached.hashCode() == hash && cached.length() == length && regionMatches(cached, s, beginIndex)) {
+                return cached;
+            }
+
+            String value = s.subSequence(beginIndex, endIndex).toString();
+
+            // String は不変のため、他のスレッドから参照されても安全です。競合した場合はどちらかの文字列が残ります。
+            this.table[index] = value;
+
+            return value;
+        }
+
+        /**
+         * プールを空にします。
+         */
+        public void clear() {
+            Arrays.fill(this.table, null);
+        }
+
+        private static boolean regionMatches(String cached, CharSequence s, int beginIndex) {
+            int length = cached.length();
+
+            for (int i = 0; i < length; i++) {
+                if (cached.charAt(i) != s.charAt(beginIndex + i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
     }
 
 }
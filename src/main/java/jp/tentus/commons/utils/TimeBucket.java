@@ -0,0 +1,131 @@
+package jp.tentus.commons.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * 1970/01/01 00:00:00 UTC からのミリ秒を、分や日などの区切りの開始時刻に切り捨てます。
+ * <p>
+ * 切り捨てはタイムゾーンでの現地時刻に対して行われます。MINUTE 、 HOUR 、 DAY は ZonedDateTime.truncatedTo と同じ結果になり、
+ * WEEK は with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) の後に truncatedTo(ChronoUnit.DAYS) を行った結果と同じになります。
+ * オフセットは ZonedDateTimeUtils がタイムゾーンごとにキャッシュしたものを使用するため、
+ * 夏時間の切り替えの付近を除いてオブジェクトを生成しません。
+ * <p>
+ * <pre>{@code
+ *      long day = TimeBucket.DAY.startOf(epochMilli, zoneId);
+ * }</pre>
+ */
+public enum TimeBucket {
+
+    /**
+     * 分。
+     */
+    MINUTE(60L),
+
+    /**
+     * 時。
+     */
+    HOUR(60L * 60L),
+
+    /**
+     * 日。
+     */
+    DAY(24L * 60L * 60L),
+
+    /**
+     * 月曜日から始まる週。
+     * <p>
+     * ZonedDateTime.truncatedTo(ChronoUnit.WEEKS) は例外となるため、直前の月曜日の 0 時に切り捨てます。
+     */
+    WEEK(7L * 24L * 60L * 60L);
+
+    private final long seconds;
+
+    TimeBucket(long seconds) {
+        this.seconds = seconds;
+    }
+
+    /**
+     * デフォルトのタイムゾーンで、ミリ秒を含む区切りの開始時刻を取得します。
+     *
+     * @param epochMilli 1970/01/01 00:00:00 UTC からのミリ秒。
+     * @return 区切りの開始時刻の 1970/01/01 00:00:00 UTC からのミリ秒。
+     */
+    public long startOf(long epochMilli) {
+        return startOf(epochMilli, ZonedDateTimeUtils.getDefaultZone());
+    }
+
+    /**
+     * タイムゾーンで、ミリ秒を含む区切りの開始時刻を取得します。
+     * <p>
+     * 開始時刻が夏時間の切り替えによる空白にあたる場合は、ZonedDateTime と同様に空白の長さだけ後の時刻になります。
+     *
+     * @param epochMilli 1970/01/01 00:00:00 UTC からのミリ秒。
+     * @param zoneId     対象のタイムゾーンを表す ZoneId 。
+     * @return 区切りの開始時刻の 1970/01/01 00:00:00 UTC からのミリ秒。
+     */
+    public long startOf(long epochMilli, ZoneId zoneId) {
+        return startOf(epochMilli, zoneId, ZonedDateTimeUtils.transitions(zoneId));
+    }
+
+    /**
+     * タイムゾーンで、配列の各ミリ秒を含む区切りの開始時刻を取得します。
+     *
+     * @param values  1970/01/01 00:00:00 UTC からのミリ秒の配列。
+     * @param zoneId  対象のタイムゾーンを表す ZoneId 。
+     * @param results 区切りの開始時刻を格納する配列。values と同じ配列も指定できます。
+     * @throws IllegalArgumentException 配列の長さが異なる場合。
+     */
+    public void startOf(long[] values, ZoneId zoneId, long[] results) {
+        if (values.length != results.length) {
+            throw new IllegalArgumentException("Array lengths do not match.");
+        }
+
+        ZonedDateTimeUtils.Transitions transitions = ZonedDateTimeUtils.transitions(zoneId);
+
+        for (int i = 0; i < values.length; i++) {
+            results[i] = startOf(values[i], zoneId, transitions);
+        }
+    }
+
+    private long startOf(long epochMilli, ZoneId zoneId, ZonedDateTimeUtils.Transitions transitions) {
+        long epochSecond = Math.floorDiv(epochMilli, 1000L);
+        ZonedDateTimeUtils.Window window = transitions.windowOfInstant(epochSecond);
+        ZoneOffset offset = window.offset();
+        long start = truncate(epochSecond + offset.getTotalSeconds());
+
+        if (window.containsLocal(start)) {
+            return (start - offset.getTotalSeconds()) * 1000L;
+        }
+
+        // 開始時刻が別のオフセットの期間にある場合は、その期間のオフセットで変換します。
+        ZonedDateTimeUtils.Window startWindow = transitions.windowOfLocal(start);
+
+        if (startWindow != null) {
+            return (start - startWindow.offset().getTotalSeconds()) * 1000L;
+        }
+
+        // 空白や重複にあたる場合は、ZonedDateTime.truncatedTo と同じ規則で解決します。
+        return ZonedDateTime.ofLocal(LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC), zoneId, offset).toEpochSecond() * 1000L;
+    }
+
+    /**
+     * 現地時刻の秒数を区切りの開始に切り捨てます。
+     *
+     * @param local 1970/01/01 00:00:00 を基準とした現地時刻の秒数。
+     * @return 区切りの開始の現地時刻の秒数。
+     */
+    private long truncate(long local) {
+        if (this == WEEK) {
+            long epochDay = Math.floorDiv(local, DAY.seconds);
+
+            // 1970/01/01 は木曜日のため、3 日ずらして月曜日を 0 にします。
+            return (epochDay - Math.floorMod(epochDay + 3, 7L)) * DAY.seconds;
+        }
+
+        return local - Math.floorMod(local, this.seconds);
+    }
+
+}
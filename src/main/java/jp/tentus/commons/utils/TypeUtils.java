@@ -1,13 +1,52 @@
 package jp.tentus.commons.utils;
 
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * ジェネリクスの型情報に対するコンビニエンスメソッドを提供します。
  */
 public class TypeUtils {
 
+    /**
+     * クラスごとの、スーパークラスの型パラメーターのオブジェクトを初期化するファクトリ。
+     * <p>
+     * クラスローダーを解放できるよう、キーのクラスは弱参照で、値はソフト参照で保持します。
+     * 値はコンストラクタを通してクラスを参照するため、強参照で保持するとキーも解放されなくなります。
+     */
+    private static final Map<Class<?>, Reference<Factory[]>> FACTORIES = new WeakHashMap<>();
+
+    /**
+     * 直前に使用したクラスのファクトリ。
+     */
+    private static volatile LastEntry<Factory[]> lastFactories;
+
+    /**
+     * クラスごとの、ジェネリクスクラスから解決済みの型パラメーターへの対応。
+     * <p>
+     * FACTORIES と同様に、キーのクラスは弱参照で、値はソフト参照で保持します。
+     */
+    private static final Map<Class<?>, Reference<ConcurrentMap<Class<?>, Resolved>>> RESOLVED = new WeakHashMap<>();
+
+    /**
+     * 直前に使用したクラスの、解決済みの型パラメーターへの対応。
+     */
+    private static volatile LastEntry<ConcurrentMap<Class<?>, Resolved>> lastResolved;
+
+    /**
+     * 引数のないコンストラクタの呼び出しに使用する空の配列。
+     */
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
     /**
      * 指定されたクラスのスーパークラスが持つ型パラメーターのオブジェクトを初期化するビルダを返します。
      * <p>
@@ -26,6 +65,48 @@ public class TypeUtils {
         return new Builder<>(clazz);
     }
 
+    /**
+     * クラスから見た、ジェネリクスクラスまたはインターフェースの型パラメーターを解決します。
+     * <p>
+     * スーパークラスとインターフェースを辿り、途中の型変数を置き換えて解決します。
+     * 解決できなかった型パラメーターは TypeVariable のまま返されます。結果はクラスごとにキャッシュされます。
+     * <p>
+     * <pre>{@code
+     *      TypeUtils.getTypeArguments(Sample.class, Base.class); // [String]
+     *
+     *      class Base<T> {}
+     *      class Middle<E> extends Base<E> {}
+     *      class Sample extends Middle<String> {}
+     * }</pre>
+     *
+     * @param clazz       対象のクラス。
+     * @param genericType 型パラメーターを持つスーパークラスまたはインターフェース。
+     * @return genericType の型パラメーターの並び。
+     * @throws IllegalArgumentException clazz が genericType のサブタイプではない場合。
+     */
+    public static Type[] getTypeArguments(Class<?> clazz, Class<?> genericType) {
+        return resolve(clazz, genericType).typeArguments.clone();
+    }
+
+    /**
+     * クラスから見た、ジェネリクスクラスまたはインターフェースの型パラメーターのクラスを解決します。
+     *
+     * @param clazz       対象のクラス。
+     * @param genericType 型パラメーターを持つスーパークラスまたはインターフェース。
+     * @param index       型パラメーターの位置。
+     * @return 型パラメーターのクラス、クラスに解決できない場合は null 。
+     * @throws IllegalArgumentException clazz が genericType のサブタイプではない場合、または index が範囲外の場合。
+     */
+    public static Class<?> getTypeArgumentClass(Class<?> clazz, Class<?> genericType, int index) {
+        Type[] typeArguments = resolve(clazz, genericType).typeArguments;
+
+        if ((index < 0) || (typeArguments.length <= index)) {
+            throw new IllegalArgumentException("index exceeds range of type parameter.");
+        }
+
+        return rawClass(typeArguments[index]);
+    }
+
     /**
      * パラメータ化された型のオブジェクトを初期化するビルダ。
      * <p>
@@ -45,6 +126,11 @@ public class TypeUtils {
          */
         private Class<?> clazz;
 
+        /**
+         * 型パラメーターを持つジェネリクスクラス、null の場合は最も近いパラメータ化されたスーパークラス。
+         */
+        private Class<?> genericType;
+
         /**
          * 型パラメーターの位置。
          */
@@ -70,30 +156,514 @@ public class TypeUtils {
             return this;
         }
 
+        /**
+         * 型パラメーターを持つジェネリクスクラスまたはインターフェースを設定します。
+         * <p>
+         * 設定しない場合は、クラスから最も近いパラメータ化されたスーパークラスの型パラメーターを使用します。
+         *
+         * @param genericType 型パラメーターを持つスーパークラスまたはインターフェース。
+         * @return このオブジェクト。
+         */
+        public Builder<T> type(Class<?> genericType) {
+            this.genericType = genericType;
+
+            return this;
+        }
+
         /**
          * 型パラメーターのオブジェクトを初期化します。
+         * <p>
+         * 型パラメーターの解決結果とコンストラクタはクラスごとにキャッシュされるため、
+         * 二回目以降はコンストラクタの呼び出しのみが行われます。
          *
          * @return 初期化された型のオブジェクト。
          */
         @SuppressWarnings("unchecked")
         public T make() {
-            try {
-                Type type = clazz.getGenericSuperclass();
+            Factory[] factories = (this.genericType == null) ? factories(this.clazz) : resolve(this.clazz, this.genericType).factories();
+
+            if ((this.index < 0) || (factories.length <= this.index)) {
+                throw new IllegalArgumentException("index exceeds range of type parameter.");
+            }
+
+            return (T) factories[this.index].newInstance();
+        }
+
+    }
+
+    /**
+     * クラスの最も近いパラメータ化されたスーパークラスが持つ型パラメーターごとのファクトリを取得します。
+     *
+     * @param clazz スーパークラスにジェネリクスクラスを持つクラス。
+     * @return 型パラメーターの位置を添字としたファクトリ。
+     */
+    private static Factory[] factories(Class<?> clazz) {
+        LastEntry<Factory[]> last = lastFactories;
+        Factory[] factories = (last != null) ? last.valueOf(clazz) : null;
+
+        if (factories != null) {
+            return factories;
+        }
+
+        factories = cached(FACTORIES, clazz);
+
+        if (factories != null) {
+            lastFactories = new LastEntry<>(clazz, factories);
+
+            return factories;
+        }
+
+        Class<?> genericType = null;
+
+        for (Class<?> c = clazz; c != null && genericType == null; c = c.getSuperclass()) {
+            if (c.getGenericSuperclass() instanceof ParameterizedType) {
+                genericType = c.getSuperclass();
+            }
+        }
+
+        if (genericType == null) {
+            throw new RuntimeException("Superclass is not a generics class.");
+        }
+
+        factories = cache(FACTORIES, clazz, resolve(clazz, genericType).factories());
+        lastFactories = new LastEntry<>(clazz, factories);
+
+        return factories;
+    }
+
+    /**
+     * クラスの、ジェネリクスクラスから解決済みの型パラメーターへの対応を取得します。
+     *
+     * @param clazz 対象のクラス。
+     * @return ジェネリクスクラスから解決済みの型パラメーターへの対応。
+     */
+    private static ConcurrentMap<Class<?>, Resolved> resolvedTypes(Class<?> clazz) {
+        LastEntry<ConcurrentMap<Class<?>, Resolved>> last = lastResolved;
+        ConcurrentMap<Class<?>, Resolved> resolvedTypes = (last != null) ? last.valueOf(clazz) : null;
+
+        if (resolvedTypes != null) {
+            return resolvedTypes;
+        }
+
+        resolvedTypes = cached(RESOLVED, clazz);
+
+        if (resolvedTypes == null) {
+            resolvedTypes = cache(RESOLVED, clazz, new ConcurrentHashMap<Class<?>, Resolved>());
+        }
+
+        lastResolved = new LastEntry<>(clazz, resolvedTypes);
+
+        return resolvedTypes;
+    }
+
+    /**
+     * キャッシュからクラスに対応する値を取得します。
+     *
+     * @param cache 対象のキャッシュ。
+     * @param clazz 対象のクラス。
+     * @param <V>   値の型。
+     * @return クラスに対応する値、キャッシュされていないか解放された場合は null 。
+     */
+    private static <V> V cached(Map<Class<?>, Reference<V>> cache, Class<?> clazz) {
+        synchronized (cache) {
+            Reference<V> reference = cache.get(clazz);
+
+            return (reference != null) ? reference.get() : null;
+        }
+    }
+
+    /**
+     * キャッシュへクラスに対応する値を追加します。
+     *
+     * @param cache 対象のキャッシュ。
+     * @param clazz 対象のクラス。
+     * @param value 追加する値。
+     * @param <V>   値の型。
+     * @return 既に値がある場合はその値、それ以外は value 。
+     */
+    private static <V> V cache(Map<Class<?>, Reference<V>> cache, Class<?> clazz, V value) {
+        synchronized (cache) {
+            V existing = cached(cache, clazz);
+
+            if (existing != null) {
+                return existing;
+            }
+
+            cache.put(clazz, new SoftReference<>(value));
+
+            return value;
+        }
+    }
+
+    /**
+     * 型パラメーターを解決し、キャッシュします。
+     *
+     * @param clazz       対象のクラス。
+     * @param genericType 型パラメーターを持つスーパークラスまたはインターフェース。
+     * @return 解決された型パラメーター。
+     */
+    private static Resolved resolve(Class<?> clazz, Class<?> genericType) {
+        ConcurrentMap<Class<?>, Resolved> resolvedTypes = resolvedTypes(clazz);
+        Resolved resolved = resolvedTypes.get(genericType);
+
+        if (resolved != null) {
+            return resolved;
+        }
+
+        if (!genericType.isAssignableFrom(clazz)) {
+            throw new IllegalArgumentException(clazz.getName() + " is not a subtype of " + genericType.getName() + ".");
+        }
+
+        Type[] typeArguments = search(clazz, genericType, Collections.<TypeVariable<?>, Type>emptyMap());
+
+        if (typeArguments == null) {
+            // 型パラメーターが与えられていない (raw 型として継承している) 場合は、型変数のまま返します。
+            typeArguments = genericType.getTypeParameters();
+        }
+
+        resolved = new Resolved(typeArguments);
+
+        Resolved existing = resolvedTypes.putIfAbsent(genericType, resolved);
+
+        return (existing != null) ? existing : resolved;
+    }
+
+    /**
+     * 型からスーパークラスとインターフェースを辿り、ジェネリクスクラスの型パラメーターを探します。
+     *
+     * @param type        対象の型。
+     * @param genericType 型パラメーターを持つスーパークラスまたはインターフェース。
+     * @param bindings    type の中で使用されている型変数の値。
+     * @return 解決された型パラメーター、見つからない場合は null 。
+     */
+    private static Type[] search(Type type, Class<?> genericType, Map<TypeVariable<?>, Type> bindings) {
+        Class<?> raw = rawClass(type);
+
+        if (raw == null || !genericType.isAssignableFrom(raw)) {
+            return null;
+        }
+
+        Map<TypeVariable<?>, Type> current = Collections.emptyMap();
+
+        if (type instanceof ParameterizedType) {
+            TypeVariable<?>[] variables = raw.getTypeParameters();
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+
+            current = new HashMap<>();
+
+            for (int i = 0; i < variables.length; i++) {
+                current.put(variables[i], substitute(arguments[i], bindings));
+            }
+        }
+
+        if (raw == genericType) {
+            if (!(type instanceof ParameterizedType)) {
+                return null;
+            }
 
-                if (!(type instanceof ParameterizedType)) {
-                    throw new RuntimeException("Superclass is not a generics class.");
+            TypeVariable<?>[] variables = raw.getTypeParameters();
+            Type[] result = new Type[variables.length];
+
+            for (int i = 0; i < variables.length; i++) {
+                result[i] = current.get(variables[i]);
+            }
+
+            return result;
+        }
+
+        Type superclass = raw.getGenericSuperclass();
+
+        if (superclass != null) {
+            Type[] result = search(superclass, genericType, current);
+
+            if (result != null) {
+                return result;
+            }
+        }
+
+        for (Type superinterface : raw.getGenericInterfaces()) {
+            Type[] result = search(superinterface, genericType, current);
+
+            if (result != null) {
+                return result;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 型に含まれる型変数を置き換えます。
+     *
+     * @param type     対象の型。
+     * @param bindings 型変数の値。
+     * @return 置き換えられた型。
+     */
+    private static Type substitute(Type type, Map<TypeVariable<?>, Type> bindings) {
+        if (type instanceof TypeVariable) {
+            Type bound = bindings.get(type);
+
+            return (bound != null) ? bound : type;
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType pt = (ParameterizedType) type;
+            Type[] arguments = pt.getActualTypeArguments();
+            Type[] substituted = new Type[arguments.length];
+            boolean changed = false;
+
+            for (int i = 0; i < arguments.length; i++) {
+                substituted[i] = substitute(arguments[i], bindings);
+                changed |= substituted[i] != arguments[i];
+            }
+
+            return changed ? new ResolvedParameterizedType(pt.getRawType(), pt.getOwnerType(), substituted) : type;
+        } else if (type instanceof GenericArrayType) {
+            Type original = ((GenericArrayType) type).getGenericComponentType();
+            Type component = substitute(original, bindings);
+
+            if (component instanceof Class) {
+                return Array.newInstance((Class<?>) component, 0).getClass();
+            }
+
+            return (component != original) ? new ResolvedGenericArrayType(component) : type;
+        }
+
+        return type;
+    }
+
+    /**
+     * 型のクラスを得ます。
+     *
+     * @param type 対象の型。
+     * @return 型のクラス、クラスに解決できない場合は null 。
+     */
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return rawClass(((ParameterizedType) type).getRawType());
+        } else if (type instanceof GenericArrayType) {
+            Class<?> component = rawClass(((GenericArrayType) type).getGenericComponentType());
+
+            return (component != null) ? Array.newInstance(component, 0).getClass() : null;
+        }
+
+        return null;
+    }
+
+    /**
+     * 解決済みの型パラメーターと、そのオブジェクトを初期化するファクトリ。
+     */
+    private static final class Resolved {
+
+        private final Type[] typeArguments;
+
+        private volatile Factory[] factories;
+
+        Resolved(Type[] typeArguments) {
+            this.typeArguments = typeArguments;
+        }
+
+        Factory[] factories() {
+            Factory[] factories = this.factories;
+
+            if (factories == null) {
+                factories = new Factory[this.typeArguments.length];
+
+                for (int i = 0; i < factories.length; i++) {
+                    factories[i] = new Factory(this.typeArguments[i]);
+                }
+
+                this.factories = factories;
+            }
+
+            return factories;
+        }
+
+    }
+
+    /**
+     * 型変数を置き換えたパラメータ化された型。
+     */
+    private static final class ResolvedParameterizedType implements ParameterizedType {
+
+        private final Type rawType;
+
+        private final Type ownerType;
+
+        private final Type[] typeArguments;
+
+        ResolvedParameterizedType(Type rawType, Type ownerType, Type[] typeArguments) {
+            this.rawType = rawType;
+            this.ownerType = ownerType;
+            this.typeArguments = typeArguments;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return this.typeArguments.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return this.rawType;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return this.ownerType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ParameterizedType)) {
+                return false;
+            }
+
+            ParameterizedType other = (ParameterizedType) obj;
+
+            return this.rawType.equals(other.getRawType())
+                    && (this.ownerType == null ? other.getOwnerType() == null : this.ownerType.equals(other.getOwnerType()))
+                    && Arrays.equals(this.typeArguments, other.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(this.typeArguments) ^ (this.ownerType == null ? 0 : this.ownerType.hashCode()) ^ this.rawType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(this.rawType.getTypeName()).append('<');
+
+            for (int i = 0; i < this.typeArguments.length; i++) {
+                if (i > 0) {
+                    builder.append(", ");
                 }
 
-                ParameterizedType pt = (ParameterizedType) type;
-                Type[] typeArguments = pt.getActualTypeArguments();
+                builder.append(this.typeArguments[i].getTypeName());
+            }
+
+            return builder.append('>').toString();
+        }
+
+    }
+
+    /**
+     * 直前に使用したクラスとキャッシュの値の組。
+     * <p>
+     * クラスローダーを解放できるよう、クラスは弱参照で、値はソフト参照で保持します。
+     *
+     * @param <V> 値の型。
+     */
+    private static final class LastEntry<V> extends WeakReference<Class<?>> {
+
+        private final Reference<V> value;
+
+        LastEntry(Class<?> clazz, V value) {
+            super(clazz);
+
+            this.value = new SoftReference<>(value);
+        }
+
+        /**
+         * クラスが一致する場合に値を返します。
+         *
+         * @param clazz 対象のクラス。
+         * @return クラスが一致する場合は値、一致しないか解放された場合は null 。
+         */
+        V valueOf(Class<?> clazz) {
+            return (get() == clazz) ? this.value.get() : null;
+        }
+
+    }
+
+    /**
+     * 要素の型の型変数を置き換えた配列の型。
+     */
+    private static final class ResolvedGenericArrayType implements GenericArrayType {
+
+        private final Type componentType;
+
+        ResolvedGenericArrayType(Type componentType) {
+            this.componentType = componentType;
+        }
+
+        @Override
+        public Type getGenericComponentType() {
+            return this.componentType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof GenericArrayType) && this.componentType.equals(((GenericArrayType) obj).getGenericComponentType());
+        }
 
-                if ((this.index < 0) || (typeArguments.length <= this.index)) {
-                    throw new IllegalArgumentException("index exceeds range of type parameter.");
+        @Override
+        public int hashCode() {
+            return this.componentType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return this.componentType.getTypeName() + "[]";
+        }
+
+    }
+
+    /**
+     * 型パラメーターのオブジェクトを、解決済みのコンストラクタで初期化するファクトリ。
+     */
+    private static final class Factory {
+
+        /**
+         * 引数のない public コンストラクタ、初期化できない型の場合は null 。
+         */
+        private final Constructor<?> constructor;
+
+        /**
+         * 初期化できない理由。
+         */
+        private final Exception error;
+
+        Factory(Type type) {
+            Constructor<?> constructor = null;
+            Exception error = null;
+
+            Class<?> argumentClass = rawClass(type);
+
+            if (argumentClass == null || argumentClass.isArray() || argumentClass.isPrimitive()) {
+                error = new InstantiationException(type + " is not a class.");
+            } else {
+                try {
+                    if (argumentClass.isInterface() || Modifier.isAbstract(argumentClass.getModifiers())) {
+                        throw new InstantiationException(argumentClass.getName());
+                    }
+
+                    constructor = argumentClass.getDeclaredConstructor();
+
+                    // Class.newInstance と同じく、アクセスできないクラスやコンストラクタは初期化しません。
+                    if (!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(argumentClass.getModifiers())) {
+                        throw new IllegalAccessException(argumentClass.getName());
+                    }
+                } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | RuntimeException ex) {
+                    constructor = null;
+                    error = ex;
                 }
+            }
 
-                Class<?> argumentClass = (Class<?>) typeArguments[this.index];
+            this.constructor = constructor;
+            this.error = error;
+        }
+
+        Object newInstance() {
+            if (this.constructor == null) {
+                throw new RuntimeException("Could not instantiate.", this.error);
+            }
 
-                return (T) argumentClass.newInstance();
+            try {
+                return this.constructor.newInstance(NO_ARGUMENTS);
+            } catch (InvocationTargetException ex) {
+                throw new RuntimeException("Could not instantiate.", ex.getCause());
             } catch (InstantiationException | IllegalAccessException ex) {
                 throw new RuntimeException("Could not instantiate.", ex);
             }
@@ -1,15 +1,74 @@
 package jp.tentus.commons.utils;
 
+import java.time.DateTimeException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * ZonedDateTime に関するコンビニエンスメソッドを提供します。
  */
 public class ZonedDateTimeUtils {
 
+    /**
+     * タイムゾーンごとの番兵の値。ZonedDateTime は不変のため、同じインスタンスを共有します。
+     */
+    private static final ConcurrentMap<ZoneId, Sentinels> SENTINELS = new ConcurrentHashMap<>();
+
+    /**
+     * キャッシュしたデフォルトのタイムゾーン、未取得または無効化された場合は null 。
+     */
+    private static volatile ZoneId defaultZone;
+
+    /**
+     * 直前に使用したタイムゾーンの番兵の値。
+     */
+    private static volatile Sentinels lastSentinels;
+
+    /**
+     * タイムゾーンごとのオフセットの遷移のキャッシュ。
+     */
+    private static final ConcurrentMap<ZoneId, Transitions> TRANSITIONS = new ConcurrentHashMap<>();
+
+    /**
+     * 直前に使用したタイムゾーンのオフセットの遷移のキャッシュ。
+     */
+    private static volatile Transitions lastTransitions;
+
+    /**
+     * デフォルトのタイムゾーンを取得します。
+     * <p>
+     * 初回に ZoneId.systemDefault() で取得した値をキャッシュします。
+     * TimeZone.setDefault などでデフォルトのタイムゾーンを変更した場合は、invalidateDefaultZone を呼び出してください。
+     *
+     * @return デフォルトのタイムゾーンを表す ZoneId 。
+     */
+    public static ZoneId getDefaultZone() {
+        ZoneId zoneId = defaultZone;
+
+        if (zoneId == null) {
+            zoneId = ZoneId.systemDefault();
+
+            defaultZone = zoneId;
+        }
+
+        return zoneId;
+    }
+
+    /**
+     * キャッシュしたデフォルトのタイムゾーンを破棄し、次回の取得時に再取得させます。
+     */
+    public static void invalidateDefaultZone() {
+        defaultZone = null;
+    }
+
     /**
      * LocalDate から ZonedDateTime を得ます。
      *
@@ -29,7 +88,7 @@ public class ZonedDateTimeUtils {
      */
     public static ZonedDateTime from(LocalDate value, ZonedDateTime defaultValue) {
         if (value != null) {
-            return ZonedDateTime.from(value.atStartOfDay(ZoneId.systemDefault()));
+            return value.atStartOfDay(getDefaultZone());
         } else {
             return defaultValue;
         }
@@ -53,7 +112,7 @@ public class ZonedDateTimeUtils {
      * @return 変換された ZonedDateTime 。
      */
     public static ZonedDateTime from(LocalDateTime value, ZonedDateTime defaultValue) {
-        return from(value, ZoneId.systemDefault(), defaultValue);
+        return from(value, getDefaultZone(), defaultValue);
     }
 
     /**
@@ -65,22 +124,171 @@ public class ZonedDateTimeUtils {
      * @return 変換された ZonedDateTime 。
      */
     public static ZonedDateTime from(LocalDateTime value, ZoneId zoneId, ZonedDateTime defaultValue) {
-        if (value != null) {
-            return ZonedDateTime.of(value, zoneId);
-        } else {
+        if (value == null) {
             return defaultValue;
         }
+
+        if (zoneId instanceof ZoneOffset) {
+            return ZonedDateTime.of(value, zoneId);
+        }
+
+        ZoneOffset offset = transitions(zoneId).offsetOfLocal(value);
+
+        // 夏時間の切り替えによる空白や重複の付近では、ZoneRules による解決を行います。
+        if (offset == null) {
+            return ZonedDateTime.of(value, zoneId);
+        }
+
+        return ZonedDateTime.ofInstant(value, offset, zoneId);
+    }
+
+    /**
+     * LocalDateTime の配列を ZonedDateTime の配列に変換します。
+     * <p>
+     * オフセットは切り替わらない期間ごとに一度だけ求め、要素数が多い場合は ForkJoinPool の共通プールで並列に変換します。
+     *
+     * @param values       ZonedDateTime に変換する LocalDateTime の配列。
+     * @param zoneId       変換に用いるタイムゾーンを表す ZoneId 。
+     * @param defaultValue 要素が null だった場合に格納される ZonedDateTime 。
+     * @return 変換された ZonedDateTime の配列、values が null の場合は null 。
+     */
+    public static ZonedDateTime[] from(final LocalDateTime[] values, final ZoneId zoneId, final ZonedDateTime defaultValue) {
+        if (values == null) {
+            return null;
+        }
+
+        final Transitions transitions = transitions(zoneId);
+        final ZonedDateTime[] results = new ZonedDateTime[values.length];
+
+        LocalDateTimeUtils.forEachRange(values.length, new LocalDateTimeUtils.Range() {
+            @Override
+            public void convert(int from, int to) {
+                Window window = null;
+
+                for (int i = from; i < to; i++) {
+                    LocalDateTime value = values[i];
+
+                    if (value == null) {
+                        results[i] = defaultValue;
+
+                        continue;
+                    }
+
+                    if (window == null || !window.containsLocal(value.toEpochSecond(ZoneOffset.UTC))) {
+                        Window found = transitions.windowOfLocal(value);
+
+                        if (found == null) {
+                            results[i] = ZonedDateTime.of(value, zoneId);
+
+                            continue;
+                        }
+
+                        window = found;
+                    }
+
+                    results[i] = (zoneId instanceof ZoneOffset) ? ZonedDateTime.of(value, zoneId) : ZonedDateTime.ofInstant(value, window.offset(), zoneId);
+                }
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * 1970/01/01 00:00:00 UTC からのミリ秒の配列を、ZonedDateTime の配列に変換します。
+     *
+     * @param values 1970/01/01 00:00:00 UTC からのミリ秒の配列。
+     * @param zoneId 変換に用いるタイムゾーンを表す ZoneId 。
+     * @return 変換された ZonedDateTime の配列、values が null の場合は null 。
+     */
+    public static ZonedDateTime[] fromEpochMillis(final long[] values, final ZoneId zoneId) {
+        if (values == null) {
+            return null;
+        }
+
+        final Transitions transitions = transitions(zoneId);
+        final ZonedDateTime[] results = new ZonedDateTime[values.length];
+
+        LocalDateTimeUtils.forEachRange(values.length, new LocalDateTimeUtils.Range() {
+            @Override
+            public void convert(int from, int to) {
+                Window window = null;
+
+                for (int i = from; i < to; i++) {
+                    long epochSecond = Math.floorDiv(values[i], 1000L);
+
+                    if (window == null || !window.containsInstant(epochSecond)) {
+                        window = transitions.windowOfInstant(epochSecond);
+                    }
+
+                    LocalDateTime local = LocalDateTime.ofEpochSecond(epochSecond, LocalDateTimeUtils.nanoOf(values[i]), window.offset());
+
+                    results[i] = (zoneId instanceof ZoneOffset) ? ZonedDateTime.of(local, zoneId) : ZonedDateTime.ofInstant(local, window.offset(), zoneId);
+                }
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * ZonedDateTime の配列を、1970/01/01 00:00:00 UTC からのミリ秒の配列に変換します。
+     *
+     * @param values       対象の ZonedDateTime の配列。
+     * @param defaultValue 要素が null の場合や、long の範囲を超える場合に格納されるデフォルト値。
+     * @return 1970/01/01 00:00:00 UTC からのミリ秒の配列、values が null の場合は null 。
+     */
+    public static long[] toEpochMillis(final ZonedDateTime[] values, final long defaultValue) {
+        if (values == null) {
+            return null;
+        }
+
+        final long[] results = new long[values.length];
+
+        LocalDateTimeUtils.forEachRange(values.length, new LocalDateTimeUtils.Range() {
+            @Override
+            public void convert(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    ZonedDateTime value = values[i];
+
+                    results[i] = (value != null) ? LocalDateTimeUtils.toEpochMilli(value.toEpochSecond(), value.getNano(), defaultValue) : defaultValue;
+                }
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * LocalDateTime のタイムゾーンでのオフセットを取得します。
+     * <p>
+     * オフセットが切り替わらない期間をタイムゾーンごとにキャッシュし、期間内であれば ZoneRules を参照せずに返します。
+     * 夏時間の開始などで LocalDateTime が存在しない場合は切り替え前のオフセットを、重複する場合は早い方のオフセットを返します。
+     *
+     * @param value  対象の LocalDateTime 。
+     * @param zoneId 対象のタイムゾーンを表す ZoneId 。
+     * @return オフセット。
+     */
+    public static ZoneOffset getOffset(LocalDateTime value, ZoneId zoneId) {
+        if (zoneId instanceof ZoneOffset) {
+            return (ZoneOffset) zoneId;
+        }
+
+        ZoneOffset offset = transitions(zoneId).offsetOfLocal(value);
+
+        return (offset != null) ? offset : zoneId.getRules().getOffset(value);
     }
 
     /**
      * 3000/12/31 23:59:59 を表す ZonedDateTime を取得します。
      * 厳密な最大値ではありませんが、現実的に番兵的に利用できる値を表します。
+     * タイムゾーンごとに同じインスタンスを返します。
      *
      * @param zoneId 対象のタイムゾーンを表す ZoneId 。
      * @return 対象の日時を表す ZonedDateTime 。
      */
     public static ZonedDateTime getMaxDateTime(ZoneId zoneId) {
-        return ZonedDateTime.of(3000, 12, 31, 23, 59, 59, 0, zoneId);
+        return sentinels(zoneId).max;
     }
 
     /**
@@ -90,18 +298,19 @@ public class ZonedDateTimeUtils {
      * @return 対象の日時を表す ZonedDateTime 。
      */
     public static ZonedDateTime getMaxDateTime() {
-        return getMaxDateTime(ZoneId.systemDefault());
+        return getMaxDateTime(getDefaultZone());
     }
 
     /**
      * 1900/01/01 00:00:00 を表す ZonedDateTime を取得します。
      * 厳密な最小値ではありませんが、現実的に番兵的に利用できる値を表します。
+     * タイムゾーンごとに同じインスタンスを返します。
      *
      * @param zoneId 対象のタイムゾーンを表す ZoneId 。
      * @return 対象の日時を表す ZonedDateTime 。
      */
     public static ZonedDateTime getMinDateTime(ZoneId zoneId) {
-        return ZonedDateTime.of(1900, 1, 1, 0, 0, 0, 0, zoneId);
+        return sentinels(zoneId).min;
     }
 
     /**
@@ -111,7 +320,7 @@ public class ZonedDateTimeUtils {
      * @return 対象の日時を表す ZonedDateTime 。
      */
     public static ZonedDateTime getMinDateTime() {
-        return getMinDateTime(ZoneId.systemDefault());
+        return getMinDateTime(getDefaultZone());
     }
 
     /**
@@ -121,7 +330,10 @@ public class ZonedDateTimeUtils {
      * @return value を表す ZonedDateTime か、getMaxDateTime() を表す ZonedDateTime 。
      */
     public static ZonedDateTime orEndDateTime(LocalDateTime value) {
-        return from(value, getMaxDateTime());
+        ZoneId zoneId = getDefaultZone();
+
+        // 番兵の値は value が null の場合にだけ取得します。
+        return (value != null) ? from(value, zoneId, null) : getMaxDateTime(zoneId);
     }
 
     /**
@@ -131,7 +343,10 @@ public class ZonedDateTimeUtils {
      * @return value を表す ZonedDateTime か、getMaxDateTime() を表す ZonedDateTime 。
      */
     public static ZonedDateTime orEndDay(LocalDate value) {
-        return from(value, getMaxDateTime());
+        ZoneId zoneId = getDefaultZone();
+
+        // 番兵の値は value が null の場合にだけ取得します。
+        return (value != null) ? value.atStartOfDay(zoneId) : getMaxDateTime(zoneId);
     }
 
     /**
@@ -141,7 +356,10 @@ public class ZonedDateTimeUtils {
      * @return value を表す ZonedDateTime か、getMinDateTime() を表す ZonedDateTime 。
      */
     public static ZonedDateTime orStartDateTime(LocalDateTime value) {
-        return from(value, getMinDateTime());
+        ZoneId zoneId = getDefaultZone();
+
+        // 番兵の値は value が null の場合にだけ取得します。
+        return (value != null) ? from(value, zoneId, null) : getMinDateTime(zoneId);
     }
 
     /**
@@ -151,7 +369,519 @@ public class ZonedDateTimeUtils {
      * @return value を表す ZonedDateTime か、getMinDateTime() を表す ZonedDateTime 。
      */
     public static ZonedDateTime orStartDay(LocalDate value) {
-        return from(value, getMinDateTime());
+        ZoneId zoneId = getDefaultZone();
+
+        // 番兵の値は value が null の場合にだけ取得します。
+        return (value != null) ? value.atStartOfDay(zoneId) : getMinDateTime(zoneId);
+    }
+
+    /**
+     * ISO-8601 形式 (yyyy-MM-ddTHH:mm:ss+09:00[Asia/Tokyo] など) または yyyy-MM-dd HH:mm:ss 形式の文字列から ZonedDateTime を得ます。
+     *
+     * @param value 対象の文字列。
+     * @return 変換された ZonedDateTime 、変換できない場合は null 。
+     */
+    public static ZonedDateTime parse(CharSequence value) {
+        return parse(value, null);
+    }
+
+    /**
+     * ISO-8601 形式 (yyyy-MM-ddTHH:mm:ss+09:00[Asia/Tokyo] など) または yyyy-MM-dd HH:mm:ss 形式の文字列から ZonedDateTime を得ます。
+     *
+     * @param value        対象の文字列。
+     * @param defaultValue value が null の場合や、変換できない場合に返される ZonedDateTime 。
+     * @return 変換された ZonedDateTime 。
+     */
+    public static ZonedDateTime parse(CharSequence value, ZonedDateTime defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        return parse(value, 0, value.length(), defaultValue);
+    }
+
+    /**
+     * 文字列の指定した範囲から ZonedDateTime を得ます。
+     * <p>
+     * 日時の形式は LocalDateTimeUtils.parse と同じで、その後に 'Z' または +HH:mm などのオフセットと、[Asia/Tokyo] などのタイムゾーンを続けられます。
+     * オフセットとタイムゾーンがどちらも省略された場合は、デフォルトのタイムゾーンの日時とします。
+     *
+     * @param value        対象の文字列。
+     * @param beginIndex   変換を開始する位置。
+     * @param endIndex     変換を終了する位置 (この位置の文字は含みません) 。
+     * @param defaultValue value が null の場合や、変換できない場合に返される ZonedDateTime 。
+     * @return 変換された ZonedDateTime 。
+     * @throws IndexOutOfBoundsException 範囲が文字列の外を指している場合。
+     */
+    public static ZonedDateTime parse(CharSequence value, int beginIndex, int endIndex, ZonedDateTime defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > value.length()) {
+            throw new IndexOutOfBoundsException("beginIndex: " + beginIndex + ", endIndex: " + endIndex + ", length: " + value.length());
+        }
+
+        // 日時の部分は数字と ':' , '.' だけで構成されるため、それ以外の文字までを日時として扱います。
+        int index = Math.min(beginIndex + 16, endIndex);
+
+        while (index < endIndex) {
+            char c = value.charAt(index);
+
+            if ((c < '0' || '9' < c) && c != ':' && c != '.') {
+                break;
+            }
+
+            index++;
+        }
+
+        LocalDateTime local = LocalDateTimeUtils.parse(value, beginIndex, index, null);
+
+        if (local == null) {
+            return defaultValue;
+        }
+
+        ZoneOffset offset = null;
+        ZoneId zoneId = null;
+
+        if (index < endIndex) {
+            char c = value.charAt(index);
+
+            if (c == 'Z' || c == 'z') {
+                offset = ZoneOffset.UTC;
+                index++;
+            } else if (c == '+' || c == '-') {
+                int end = index + 1;
+
+                while (end < endIndex && value.charAt(end) != '[') {
+                    end++;
+                }
+
+                int seconds = parseOffsetSeconds(value, index + 1, end);
+
+                if (seconds < 0) {
+                    return defaultValue;
+                }
+
+                offset = ZoneOffset.ofTotalSeconds((c == '-') ? -seconds : seconds);
+                index = end;
+            }
+        }
+
+        if (index < endIndex) {
+            if (value.charAt(index) != '[' || value.charAt(endIndex - 1) != ']' || endIndex - index < 3) {
+                return defaultValue;
+            }
+
+            try {
+                zoneId = ZoneId.of(value.subSequence(index + 1, endIndex - 1).toString());
+            } catch (DateTimeException ex) {
+                return defaultValue;
+            }
+        }
+
+        if (offset == null) {
+            return ZonedDateTime.of(local, (zoneId != null) ? zoneId : getDefaultZone());
+        }
+
+        if (zoneId == null) {
+            return ZonedDateTime.of(local, offset);
+        }
+
+        // DateTimeFormatter と同様に、オフセットで瞬間を決めてからタイムゾーンを適用します。
+        return ZonedDateTime.ofInstant(local, offset, zoneId);
+    }
+
+    /**
+     * ZonedDateTime を ISO-8601 形式 (yyyy-MM-ddTHH:mm:ss+09:00[Asia/Tokyo]) で StringBuilder に追加します。
+     * <p>
+     * タイムゾーンがオフセットの場合は、[] の部分を出力しません。
+     *
+     * @param out   追加先の StringBuilder 。
+     * @param value 対象の ZonedDateTime 。
+     * @return out 。
+     */
+    public static StringBuilder formatIso(StringBuilder out, ZonedDateTime value) {
+        return formatIso(out, value, null);
+    }
+
+    /**
+     * ZonedDateTime を ISO-8601 形式 (yyyy-MM-ddTHH:mm:ss+09:00[Asia/Tokyo]) で StringBuilder に追加します。
+     * <p>
+     * タイムゾーンがオフセットの場合は、[] の部分を出力しません。
+     *
+     * @param out          追加先の StringBuilder 。
+     * @param value        対象の ZonedDateTime 。
+     * @param defaultValue value が null の場合に追加する文字列、null の場合は何も追加しません。
+     * @return out 。
+     */
+    public static StringBuilder formatIso(StringBuilder out, ZonedDateTime value, CharSequence defaultValue) {
+        if (value == null) {
+            return (defaultValue != null) ? out.append(defaultValue) : out;
+        }
+
+        LocalDateTimeUtils.append(out, value.toLocalDateTime(), 'T', true);
+
+        out.append(value.getOffset().getId());
+
+        ZoneId zoneId = value.getZone();
+
+        if (!(zoneId instanceof ZoneOffset)) {
+            out.append('[').append(zoneId.getId()).append(']');
+        }
+
+        return out;
+    }
+
+    /**
+     * ZonedDateTime をそのタイムゾーンでの yyyy-MM-dd HH:mm:ss 形式で StringBuilder に追加します。
+     *
+     * @param out   追加先の StringBuilder 。
+     * @param value 対象の ZonedDateTime 。
+     * @return out 。
+     */
+    public static StringBuilder format(StringBuilder out, ZonedDateTime value) {
+        return format(out, value, null);
+    }
+
+    /**
+     * ZonedDateTime をそのタイムゾーンでの yyyy-MM-dd HH:mm:ss 形式で StringBuilder に追加します。
+     *
+     * @param out          追加先の StringBuilder 。
+     * @param value        対象の ZonedDateTime 。
+     * @param defaultValue value が null の場合に追加する文字列、null の場合は何も追加しません。
+     * @return out 。
+     */
+    public static StringBuilder format(StringBuilder out, ZonedDateTime value, CharSequence defaultValue) {
+        if (value == null) {
+            return (defaultValue != null) ? out.append(defaultValue) : out;
+        }
+
+        return LocalDateTimeUtils.append(out, value.toLocalDateTime(), ' ', false);
+    }
+
+    /**
+     * +HH, +HHmm, +HH:mm, +HH:mm:ss などのオフセットの符号以降を秒に変換します。
+     *
+     * @param value      対象の文字列。
+     * @param beginIndex 符号の次の位置。
+     * @param endIndex   オフセットの終了位置。
+     * @return オフセットの秒数、変換できない場合は -1 。
+     */
+    private static int parseOffsetSeconds(CharSequence value, int beginIndex, int endIndex) {
+        int length = endIndex - beginIndex;
+        int hours;
+        int minutes = 0;
+        int seconds = 0;
+
+        if (length == 2) {
+            hours = LocalDateTimeUtils.parseDigits(value, beginIndex, 2);
+        } else if (length == 4) {
+            hours = LocalDateTimeUtils.parseDigits(value, beginIndex, 2);
+            minutes = LocalDateTimeUtils.parseDigits(value, beginIndex + 2, 2);
+        } else if ((length == 5 || length == 8) && value.charAt(beginIndex + 2) == ':') {
+            hours = LocalDateTimeUtils.parseDigits(value, beginIndex, 2);
+            minutes = LocalDateTimeUtils.parseDigits(value, beginIndex + 3, 2);
+
+            if (length == 8) {
+                if (value.charAt(beginIndex + 5) != ':') {
+                    return -1;
+                }
+
+                seconds = LocalDateTimeUtils.parseDigits(value, beginIndex + 6, 2);
+            }
+        } else {
+            return -1;
+        }
+
+        if ((hours | minutes | seconds) < 0 || 59 < minutes || 59 < seconds) {
+            return -1;
+        }
+
+        int total = hours * 3600 + minutes * 60 + seconds;
+
+        return (total <= 18 * 3600) ? total : -1;
+    }
+
+    private static Sentinels sentinels(ZoneId zoneId) {
+        Sentinels sentinels = lastSentinels;
+
+        if (sentinels != null && sentinels.zoneId.equals(zoneId)) {
+            return sentinels;
+        }
+
+        sentinels = SENTINELS.get(zoneId);
+
+        if (sentinels == null) {
+            Sentinels created = new Sentinels(zoneId);
+
+            sentinels = SENTINELS.putIfAbsent(zoneId, created);
+
+            if (sentinels == null) {
+                sentinels = created;
+            }
+        }
+
+        lastSentinels = sentinels;
+
+        return sentinels;
+    }
+
+    /**
+     * タイムゾーンのオフセットの遷移のキャッシュを取得します。
+     *
+     * @param zoneId 対象のタイムゾーンを表す ZoneId 。
+     * @return オフセットの遷移のキャッシュ。
+     */
+    static Transitions transitions(ZoneId zoneId) {
+        Transitions transitions = lastTransitions;
+
+        if (transitions != null && transitions.zoneId.equals(zoneId)) {
+            return transitions;
+        }
+
+        transitions = TRANSITIONS.get(zoneId);
+
+        if (transitions == null) {
+            Transitions created = new Transitions(zoneId);
+
+            transitions = TRANSITIONS.putIfAbsent(zoneId, created);
+
+            if (transitions == null) {
+                transitions = created;
+            }
+        }
+
+        lastTransitions = transitions;
+
+        return transitions;
+    }
+
+    /**
+     * タイムゾーンのオフセットが切り替わらない期間をキャッシュします。
+     * <p>
+     * 直前に使用した 2 つの期間を保持し、期間外の場合だけ ZoneRules から前後の遷移を取得して期間を作り直します。
+     */
+    static final class Transitions {
+
+        private final ZoneId zoneId;
+
+        private final ZoneRules rules;
+
+        /**
+         * 直前に使用した期間。
+         */
+        private volatile Window current;
+
+        /**
+         * current の前に使用した期間。
+         */
+        private volatile Window previous;
+
+        Transitions(ZoneId zoneId) {
+            this.zoneId = zoneId;
+            this.rules = zoneId.getRules();
+            this.current = window(0L);
+            this.previous = this.current;
+        }
+
+        /**
+         * LocalDateTime のオフセットを取得します。
+         *
+         * @param value 対象の LocalDateTime 。
+         * @return オフセット、夏時間の切り替えによる空白や重複にあたる場合は null 。
+         */
+        ZoneOffset offsetOfLocal(LocalDateTime value) {
+            Window window = windowOfLocal(value);
+
+            return (window != null) ? window.offset : null;
+        }
+
+        /**
+         * 1970/01/01 00:00:00 UTC からの秒数のオフセットを取得します。
+         *
+         * @param epochSecond 1970/01/01 00:00:00 UTC からの秒数。
+         * @return オフセット。
+         */
+        ZoneOffset offsetOfInstant(long epochSecond) {
+            return windowOfInstant(epochSecond).offset;
+        }
+
+        /**
+         * LocalDateTime を含む、オフセットが切り替わらない期間を取得します。
+         *
+         * @param value 対象の LocalDateTime 。
+         * @return 期間、夏時間の切り替えによる空白や重複にあたる場合は null 。
+         */
+        Window windowOfLocal(LocalDateTime value) {
+            long local = value.toEpochSecond(ZoneOffset.UTC);
+            Window window = this.current;
+
+            if (window.containsLocal(local)) {
+                return window;
+            }
+
+            window = this.previous;
+
+            if (window.containsLocal(local)) {
+                return window;
+            }
+
+            if (this.rules.getTransition(value) != null) {
+                return null;
+            }
+
+            window = window(local - this.rules.getOffset(value).getTotalSeconds());
+
+            update(window);
+
+            return window;
+        }
+
+        /**
+         * 1970/01/01 00:00:00 を基準とした現地時刻の秒数を含む、オフセットが切り替わらない期間を取得します。
+         *
+         * @param local 1970/01/01 00:00:00 を基準とした現地時刻の秒数。
+         * @return 期間、夏時間の切り替えによる空白や重複にあたる場合は null 。
+         */
+        Window windowOfLocal(long local) {
+            Window window = this.current;
+
+            if (window.containsLocal(local)) {
+                return window;
+            }
+
+            window = this.previous;
+
+            if (window.containsLocal(local)) {
+                return window;
+            }
+
+            return windowOfLocal(LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC));
+        }
+
+        /**
+         * 1970/01/01 00:00:00 UTC からの秒数を含む、オフセットが切り替わらない期間を取得します。
+         *
+         * @param epochSecond 1970/01/01 00:00:00 UTC からの秒数。
+         * @return 期間。
+         */
+        Window windowOfInstant(long epochSecond) {
+            Window window = this.current;
+
+            if (window.containsInstant(epochSecond)) {
+                return window;
+            }
+
+            window = this.previous;
+
+            if (window.containsInstant(epochSecond)) {
+                return window;
+            }
+
+            window = window(epochSecond);
+
+            update(window);
+
+            return window;
+        }
+
+        private void update(Window window) {
+            this.previous = this.current;
+            this.current = window;
+        }
+
+        /**
+         * 指定した瞬間を含む、オフセットが切り替わらない期間を作成します。
+         *
+         * @param epochSecond 1970/01/01 00:00:00 UTC からの秒数。
+         * @return オフセットが切り替わらない期間。
+         */
+        private Window window(long epochSecond) {
+            if (this.rules.isFixedOffset()) {
+                return new Window(this.rules.getOffset(Instant.EPOCH), Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE);
+            }
+
+            ZoneOffset offset = this.rules.getOffset(Instant.ofEpochSecond(epochSecond));
+            ZoneOffsetTransition previous = this.rules.previousTransition(Instant.ofEpochSecond(epochSecond + 1));
+            ZoneOffsetTransition next = this.rules.nextTransition(Instant.ofEpochSecond(epochSecond));
+            int seconds = offset.getTotalSeconds();
+
+            long instantStart = Long.MIN_VALUE;
+            long instantEnd = Long.MAX_VALUE;
+            long localStart = Long.MIN_VALUE;
+            long localEnd = Long.MAX_VALUE;
+
+            // 遷移の前後のオフセットで重複や空白になる現地時刻は、期間に含めません。
+            if (previous != null) {
+                instantStart = previous.toEpochSecond();
+                localStart = instantStart + Math.max(previous.getOffsetBefore().getTotalSeconds(), seconds);
+            }
+
+            if (next != null) {
+                instantEnd = next.toEpochSecond();
+                localEnd = instantEnd + Math.min(seconds, next.getOffsetAfter().getTotalSeconds());
+            }
+
+            return new Window(offset, instantStart, instantEnd, localStart, localEnd);
+        }
+
+    }
+
+    /**
+     * オフセットが切り替わらない期間。開始は期間に含み、終了は含みません。
+     */
+    static final class Window {
+
+        private final ZoneOffset offset;
+
+        private final long instantStart;
+
+        private final long instantEnd;
+
+        private final long localStart;
+
+        private final long localEnd;
+
+        Window(ZoneOffset offset, long instantStart, long instantEnd, long localStart, long localEnd) {
+            this.offset = offset;
+            this.instantStart = instantStart;
+            this.instantEnd = instantEnd;
+            this.localStart = localStart;
+            this.localEnd = localEnd;
+        }
+
+        ZoneOffset offset() {
+            return this.offset;
+        }
+
+        boolean containsLocal(long local) {
+            return this.localStart <= local && local < this.localEnd;
+        }
+
+        boolean containsInstant(long epochSecond) {
+            return this.instantStart <= epochSecond && epochSecond < this.instantEnd;
+        }
+
+    }
+
+    /**
+     * タイムゾーンごとの番兵の値。
+     */
+    private static final class Sentinels {
+
+        private final ZoneId zoneId;
+
+        private final ZonedDateTime min;
+
+        private final ZonedDateTime max;
+
+        Sentinels(ZoneId zoneId) {
+            this.zoneId = zoneId;
+            this.min = ZonedDateTime.of(1900, 1, 1, 0, 0, 0, 0, zoneId);
+            this.max = ZonedDateTime.of(3000, 12, 31, 23, 59, 59, 0, zoneId);
+        }
+
     }
 
 }
@@ -0,0 +1,179 @@
+package jp.tentus.commons.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DateUtilsTests {
+
+    /**
+     * isLeapYear メソッドの動作を確認します。
+     */
+    @Test
+    public void testIsLeapYear() {
+        Assert.assertTrue(DateUtils.isLeapYear(2016));
+        Assert.assertTrue(DateUtils.isLeapYear(2000));
+        Assert.assertFalse(DateUtils.isLeapYear(1900));
+        Assert.assertFalse(DateUtils.isLeapYear(2017));
+    }
+
+    /**
+     * validateDate メソッドの動作を確認します。
+     */
+    @Test
+    public void testValidateDate() {
+        Assert.assertTrue(DateUtils.validateDate(2016, 2, 29));
+        Assert.assertFalse(DateUtils.validateDate(2017, 2, 29));
+        Assert.assertTrue(DateUtils.validateDate(2017, 12, 31));
+        Assert.assertFalse(DateUtils.validateDate(2017, 13, 1));
+        Assert.assertFalse(DateUtils.validateDate(2017, 0, 1));
+        Assert.assertFalse(DateUtils.validateDate(2017, 4, 31));
+        Assert.assertFalse(DateUtils.validateDate(2017, 4, 0));
+        Assert.assertFalse(DateUtils.validateDate(0, 1, 1));
+    }
+
+    /**
+     * toEpochDay, getDayOfWeek, getDaysInMonth メソッドの動作を確認します。
+     */
+    @Test
+    public void testEpochDay() {
+        for (LocalDate date = LocalDate.of(1600, 1, 1); date.getYear() < 2400; date = date.plusDays(1)) {
+            int year = date.getYear();
+            int month = date.getMonthValue();
+            int day = date.getDayOfMonth();
+
+            Assert.assertEquals(DateUtils.toEpochDay(year, month, day), date.toEpochDay());
+            Assert.assertEquals(DateUtils.getDayOfWeek(year, month, day), date.getDayOfWeek().getValue());
+            Assert.assertEquals(DateUtils.getDaysInMonth(year, month), date.lengthOfMonth());
+            Assert.assertTrue(DateUtils.validateDate(year, month, day));
+        }
+
+        Assert.assertEquals(DateUtils.getDaysInMonth(2017, 13), 0);
+    }
+
+    /**
+     * 配列を対象としたメソッドの動作を確認します。
+     */
+    @Test
+    public void testBatch() {
+        int[] years = {2016, 2017, 1970};
+        int[] months = {2, 2, 1};
+        int[] days = {29, 29, 1};
+
+        boolean[] valid = new boolean[3];
+        long[] epochDays = new long[3];
+        int[] daysOfWeek = new int[3];
+
+        Assert.assertEquals(DateUtils.validateDates(years, months, days, valid), 2);
+        Assert.assertArrayEquals(valid, new boolean[]{true, false, true});
+
+        DateUtils.toEpochDays(years, months, days, epochDays);
+
+        Assert.assertArrayEquals(epochDays, new long[]{LocalDate.of(2016, 2, 29).toEpochDay(), LocalDate.of(2017, 3, 1).toEpochDay(), 0L});
+
+        DateUtils.getDaysOfWeek(years, months, days, daysOfWeek);
+
+        Assert.assertArrayEquals(daysOfWeek, new int[]{1, 3, 4});
+    }
+
+    /**
+     * 長さの異なる配列を指定した場合の動作を確認します。
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchLength() {
+        DateUtils.validateDates(new int[2], new int[2], new int[1], new boolean[2]);
+    }
+
+    /**
+     * setClock を使用した now メソッドの動作を確認します。
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testNow() {
+        try {
+            DateUtils.setClock(new DateUtils.Clock() {
+                @Override
+                public long currentTimeMillis() {
+                    return 1234L;
+                }
+            });
+
+            Assert.assertEquals(DateUtils.now().getTime(), 1234L);
+            Assert.assertEquals(DateUtils.now(Locale.JAPAN).getTime(), 1234L);
+            Assert.assertEquals(DateUtils.nowInstant(), Instant.ofEpochMilli(1234L));
+        } finally {
+            DateUtils.setClock(null);
+        }
+
+        Assert.assertSame(DateUtils.getClock(), DateUtils.SYSTEM_CLOCK);
+    }
+
+    /**
+     * CachedClock の動作を確認します。
+     */
+    @Test
+    public void testCachedClock() throws InterruptedException {
+        final AtomicLong source = new AtomicLong(100L);
+        DateUtils.CachedClock clock = new DateUtils.CachedClock(new DateUtils.Clock() {
+            @Override
+            public long currentTimeMillis() {
+                return source.get();
+            }
+        }, 1L);
+
+        try {
+            Assert.assertEquals(clock.currentTimeMillis(), 100L);
+            Assert.assertSame(clock.instant(), clock.instant());
+
+            source.set(200L);
+
+            for (int i = 0; i < 1000 && clock.currentTimeMillis() != 200L; i++) {
+                Thread.sleep(1L);
+            }
+
+            Assert.assertEquals(clock.currentTimeMillis(), 200L);
+
+            DateUtils.setClock(clock);
+
+            Assert.assertSame(DateUtils.nowInstant(), clock.instant());
+            Assert.assertEquals(DateUtils.now().getTime(), 200L);
+
+            DateUtils.setClock(clock);
+
+            Assert.assertFalse(clock.isClosed());
+        } finally {
+            DateUtils.setClock(null);
+            clock.close();
+        }
+    }
+
+    /**
+     * setClock で置き換えられた CachedClock が閉じられる事を確認します。
+     */
+    @Test
+    public void testSetClockClosesReplaced() {
+        DateUtils.CachedClock first = new DateUtils.CachedClock(10L);
+        DateUtils.CachedClock second = new DateUtils.CachedClock(10L);
+
+        try {
+            DateUtils.setClock(first);
+            DateUtils.setClock(second);
+
+            Assert.assertTrue(first.isClosed());
+            Assert.assertFalse(second.isClosed());
+
+            DateUtils.setClock(null);
+
+            Assert.assertTrue(second.isClosed());
+        } finally {
+            DateUtils.setClock(null);
+            first.close();
+            second.close();
+        }
+    }
+
+}
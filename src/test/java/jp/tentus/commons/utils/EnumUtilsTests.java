@@ -0,0 +1,121 @@
+package jp.tentus.commons.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+public class EnumUtilsTests {
+
+    /**
+     * toString の動作を確認します。
+     */
+    @Test
+    public void testToString() {
+        Assert.assertEquals(EnumUtils.toString(TimeUnit.MILLISECONDS), "milliseconds");
+        Assert.assertSame(EnumUtils.toString(TimeUnit.MILLISECONDS), EnumUtils.toString(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(EnumUtils.toString(Operation.PLUS), "plus");
+        Assert.assertEquals(EnumUtils.toString(null, "none"), "none");
+    }
+
+    /**
+     * from の動作を確認します。
+     */
+    @Test
+    public void testFrom() {
+        for (TimeUnit unit : TimeUnit.values()) {
+            Assert.assertSame(EnumUtils.from(TimeUnit.class, EnumUtils.toString(unit)), unit);
+            Assert.assertSame(EnumUtils.from(TimeUnit.class, unit.name()), unit);
+        }
+
+        Assert.assertSame(EnumUtils.from(TimeUnit.class, "Seconds"), TimeUnit.SECONDS);
+        Assert.assertSame(EnumUtils.from(TimeUnit.class, "second", TimeUnit.DAYS), TimeUnit.DAYS);
+        Assert.assertSame(EnumUtils.from(TimeUnit.class, null, TimeUnit.DAYS), TimeUnit.DAYS);
+        Assert.assertNull(EnumUtils.from(TimeUnit.class, ""));
+        Assert.assertSame(EnumUtils.from(Operation.class, new StringBuilder("a=minus;"), 2, 7, null), Operation.MINUS);
+        Assert.assertNull(EnumUtils.from(Empty.class, "none"));
+    }
+
+    /**
+     * toEnumSet の動作を確認します。
+     */
+    @Test
+    public void testToEnumSet() {
+        EnumSet<TimeUnit> units = EnumSet.of(TimeUnit.SECONDS, TimeUnit.DAYS);
+
+        Assert.assertEquals(EnumUtils.toString(units, ','), "seconds,days");
+        Assert.assertEquals(EnumUtils.toString(units, ',', "none"), "seconds,days");
+        Assert.assertNull(EnumUtils.toString((Collection<TimeUnit>) null, ','));
+        Assert.assertEquals(EnumUtils.toString((Collection<TimeUnit>) null, ',', "none"), "none");
+        Assert.assertEquals(EnumUtils.toEnumSet(TimeUnit.class, "seconds,days", ','), units);
+        Assert.assertEquals(EnumUtils.toEnumSet(TimeUnit.class, " Days , seconds,,", ','), units);
+        Assert.assertEquals(EnumUtils.toEnumSet(TimeUnit.class, "", ','), EnumSet.noneOf(TimeUnit.class));
+        Assert.assertNull(EnumUtils.toEnumSet(TimeUnit.class, "seconds,weeks", ','));
+        Assert.assertSame(EnumUtils.toEnumSet(TimeUnit.class, null, ',', units), units);
+    }
+
+    /**
+     * ビットマスクの動作を確認します。
+     */
+    @Test
+    public void testBitmask() {
+        EnumSet<TimeUnit> units = EnumSet.of(TimeUnit.NANOSECONDS, TimeUnit.SECONDS, TimeUnit.DAYS);
+        long bits = EnumUtils.toBitmask(units);
+
+        Assert.assertEquals(bits, (1L << 0) | (1L << 3) | (1L << 6));
+        Assert.assertEquals(EnumUtils.fromBitmask(TimeUnit.class, bits), units);
+        Assert.assertEquals(EnumUtils.fromBitmask(TimeUnit.class, bits | (1L << 63)), units);
+        Assert.assertArrayEquals(EnumUtils.toBitmasks(TimeUnit.class, units), new long[]{bits});
+        Assert.assertEquals(EnumUtils.toBitmask(null), 0L);
+
+        EnumSet<Large> large = EnumSet.of(Large.V0, Large.V63, Large.V64, Large.V69);
+        long[] masks = EnumUtils.toBitmasks(Large.class, large);
+
+        Assert.assertArrayEquals(masks, new long[]{1L | (1L << 63), 1L | (1L << 5)});
+        Assert.assertEquals(EnumUtils.fromBitmasks(Large.class, masks), large);
+    }
+
+    /**
+     * 64 個を超える定数を持つ列挙型を long へ変換した場合の動作を確認します。
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBitmaskOverflow() {
+        EnumUtils.toBitmask(EnumSet.of(Large.V64));
+    }
+
+    enum Large {
+
+        V0, V1, V2, V3, V4, V5, V6, V7, V8, V9, V10, V11, V12, V13, V14, V15, V16, V17, V18, V19,
+        V20, V21, V22, V23, V24, V25, V26, V27, V28, V29, V30, V31, V32, V33, V34, V35, V36, V37, V38, V39,
+        V40, V41, V42, V43, V44, V45, V46, V47, V48, V49, V50, V51, V52, V53, V54, V55, V56, V57, V58, V59,
+        V60, V61, V62, V63, V64, V65, V66, V67, V68, V69
+
+    }
+
+    enum Operation {
+
+        PLUS {
+            @Override
+            int apply(int a, int b) {
+                return a + b;
+            }
+        },
+
+        MINUS {
+            @Override
+            int apply(int a, int b) {
+                return a - b;
+            }
+        };
+
+        abstract int apply(int a, int b);
+
+    }
+
+    enum Empty {
+
+    }
+
+}
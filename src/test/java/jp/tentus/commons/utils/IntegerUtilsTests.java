@@ -4,6 +4,12 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
 
 public class IntegerUtilsTests {
 
@@ -44,4 +50,117 @@ public class IntegerUtilsTests {
         Assert.assertEquals(IntegerUtils.nullOrDefault(new BigInteger("1"), 2), Integer.valueOf(1));
     }
 
+    /**
+     * parseInt の動作を確認します。
+     */
+    @Test
+    public void testParseInt() {
+        Assert.assertEquals(IntegerUtils.parseInt(null, 1), 1);
+        Assert.assertEquals(IntegerUtils.parseInt("", 1), 1);
+        Assert.assertEquals(IntegerUtils.parseInt("-", 1), 1);
+        Assert.assertEquals(IntegerUtils.parseInt("+", 1), 1);
+        Assert.assertEquals(IntegerUtils.parseInt("+12", 1), 12);
+        Assert.assertEquals(IntegerUtils.parseInt("-12", 1), -12);
+        Assert.assertEquals(IntegerUtils.parseInt(" 12", 1), 1);
+        Assert.assertEquals(IntegerUtils.parseInt("1.0", 1), 1);
+        Assert.assertEquals(IntegerUtils.parseInt("１２", 1), 12);
+        Assert.assertEquals(IntegerUtils.parseInt(String.valueOf(Integer.MAX_VALUE), 1), Integer.MAX_VALUE);
+        Assert.assertEquals(IntegerUtils.parseInt(String.valueOf(Integer.MIN_VALUE), 1), Integer.MIN_VALUE);
+        Assert.assertEquals(IntegerUtils.parseInt(new java.math.BigInteger(String.valueOf(Integer.MAX_VALUE)).add(java.math.BigInteger.ONE).toString(), 1), 1);
+        Assert.assertEquals(IntegerUtils.parseInt(new java.math.BigInteger(String.valueOf(Integer.MIN_VALUE)).subtract(java.math.BigInteger.ONE).toString(), 1), 1);
+
+        StringBuilder s = new StringBuilder("id=123;n=-45;x=");
+
+        Assert.assertEquals(IntegerUtils.parseInt(s, 3, 6), 123);
+        Assert.assertEquals(IntegerUtils.parseInt(s, 9, 12, 1), -45);
+        Assert.assertEquals(IntegerUtils.parseInt(s, 15, 15, 1), 1);
+        Assert.assertEquals(IntegerUtils.parseInt(s, 0, 6, 1), 1);
+    }
+
+    /**
+     * parseInt で範囲外を指定した場合の動作を確認します。
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testParseIntOutOfRange() {
+        IntegerUtils.parseInt("123", 2, 4);
+    }
+
+    /**
+     * Column の動作を確認します。
+     */
+    @Test
+    public void testColumn() {
+        IntegerUtils.Column column = IntegerUtils.Column.from(Arrays.<Integer>asList(5, null, -3, 7, null));
+
+        Assert.assertEquals(column.size(), 5);
+        Assert.assertTrue(column.isNull(1));
+        Assert.assertEquals(column.get(0, -1), 5);
+        Assert.assertEquals(column.get(1, -1), -1);
+        Assert.assertNull(column.getOrNull(4));
+        Assert.assertEquals(column.countNonNull(), 3);
+        Assert.assertEquals(column.sum(), 9L);
+        Assert.assertEquals(column.min(0), -3);
+        Assert.assertEquals(column.max(0), 7);
+        Assert.assertEquals(column.average(0.0), 3.0, 0.0);
+        Assert.assertEquals(column.compare(1, 2), IntegerUtils.compare(null, -3));
+        Assert.assertEquals(column.compare(3, 0), IntegerUtils.compare(7, 5));
+        Assert.assertEquals(column.compare(1, 4), 0);
+
+        column.set(1, 1);
+        column.setNull(0);
+        column.sort();
+
+        Assert.assertEquals(column.toList(), Arrays.<Integer>asList(null, null, -3, 1, 7));
+
+        IntegerUtils.Column empty = new IntegerUtils.Column(0);
+
+        empty.addNull();
+
+        Assert.assertEquals(empty.min(42), 42);
+        Assert.assertEquals(empty.average(-1.0), -1.0, 0.0);
+    }
+
+    /**
+     * 多くの要素を持つ Column の並べ替えの動作を確認します。
+     */
+    @Test
+    public void testColumnSort() {
+        Random random = new Random(1);
+        List<Integer> expected = new ArrayList<>();
+        IntegerUtils.Column column = new IntegerUtils.Column();
+
+        for (int i = 0; i < 1000; i++) {
+            Integer value = (random.nextInt(5) == 0) ? null : random.nextInt();
+
+            expected.add(value);
+            column.add(value);
+        }
+
+        long sum = 0L;
+
+        for (Integer value : expected) {
+            sum += (value != null) ? value : 0;
+        }
+
+        Assert.assertEquals(column.sum(), sum);
+
+        Collections.sort(expected, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return IntegerUtils.compare(a, b);
+            }
+        });
+        column.sort();
+
+        Assert.assertEquals(column.toList(), expected);
+    }
+
+    /**
+     * 範囲外の位置を指定した場合の Column の動作を確認します。
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testColumnOutOfRange() {
+        new IntegerUtils.Column().isNull(0);
+    }
+
 }
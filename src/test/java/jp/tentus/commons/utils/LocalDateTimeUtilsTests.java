@@ -0,0 +1,133 @@
+package jp.tentus.commons.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+public class LocalDateTimeUtilsTests {
+
+    /**
+     * from メソッドの動作を確認します。
+     */
+    @Test
+    public void testFrom() {
+        ZonedDateTime value = ZonedDateTime.of(2017, 10, 12, 18, 44, 36, 0, ZoneId.of("Asia/Tokyo"));
+
+        Assert.assertEquals(LocalDateTimeUtils.from(value), LocalDateTime.of(2017, 10, 12, 18, 44, 36));
+        Assert.assertNull(LocalDateTimeUtils.from(null));
+    }
+
+    /**
+     * parse メソッドの動作を確認します。
+     */
+    @Test
+    public void testParse() {
+        LocalDateTime expected = LocalDateTime.of(2017, 10, 12, 18, 44, 36);
+
+        Assert.assertEquals(LocalDateTimeUtils.parse("2017-10-12T18:44:36"), expected);
+        Assert.assertEquals(LocalDateTimeUtils.parse("2017-10-12 18:44:36"), expected);
+        Assert.assertEquals(LocalDateTimeUtils.parse("2017-10-12T18:44"), expected.withSecond(0));
+        Assert.assertEquals(LocalDateTimeUtils.parse("2017-10-12T18:44:36.5"), expected.withNano(500000000));
+        Assert.assertEquals(LocalDateTimeUtils.parse("2017-10-12T18:44:36.123456789"), expected.withNano(123456789));
+        Assert.assertEquals(LocalDateTimeUtils.parse("{\"at\":\"2017-10-12T18:44:36\"}", 7, 26, null), expected);
+        Assert.assertEquals(LocalDateTimeUtils.parse(new StringBuilder("2016-02-29 00:00:00")), LocalDateTime.of(2016, 2, 29, 0, 0));
+
+        Assert.assertNull(LocalDateTimeUtils.parse(null));
+        Assert.assertNull(LocalDateTimeUtils.parse("2017-02-29T00:00:00"));
+        Assert.assertNull(LocalDateTimeUtils.parse("2017-10-12T24:00:00"));
+        Assert.assertNull(LocalDateTimeUtils.parse("2017-10-12T18:60:00"));
+        Assert.assertNull(LocalDateTimeUtils.parse("2017-10-12T18:44:36."));
+        Assert.assertNull(LocalDateTimeUtils.parse("2017-10-12T18:44:36.1234567890"));
+        Assert.assertNull(LocalDateTimeUtils.parse("2017-10-12T18:44:3"));
+        Assert.assertNull(LocalDateTimeUtils.parse("2017/10/12 18:44:36"));
+        Assert.assertNull(LocalDateTimeUtils.parse("2017-1a-12 18:44:36"));
+        Assert.assertEquals(LocalDateTimeUtils.parse("", expected), expected);
+    }
+
+    /**
+     * formatIso, format メソッドの動作を確認します。
+     */
+    @Test
+    public void testFormat() {
+        LocalDateTime value = LocalDateTime.of(2017, 1, 2, 3, 4, 0);
+
+        Assert.assertEquals(LocalDateTimeUtils.formatIso(new StringBuilder(), value).toString(), "2017-01-02T03:04:00");
+        Assert.assertEquals(LocalDateTimeUtils.formatIso(new StringBuilder(), value.withNano(120000000)).toString(), "2017-01-02T03:04:00.120");
+        Assert.assertEquals(LocalDateTimeUtils.formatIso(new StringBuilder(), value.withNano(123400)).toString(), "2017-01-02T03:04:00.000123400");
+        Assert.assertEquals(LocalDateTimeUtils.format(new StringBuilder("at "), value.withNano(1)).toString(), "at 2017-01-02 03:04:00");
+        Assert.assertEquals(LocalDateTimeUtils.formatIso(new StringBuilder(), LocalDateTime.of(12017, 1, 2, 3, 4)).toString(), "+12017-01-02T03:04:00");
+        Assert.assertEquals(LocalDateTimeUtils.formatIso(new StringBuilder(), null).toString(), "");
+        Assert.assertEquals(LocalDateTimeUtils.format(new StringBuilder(), null, "-").toString(), "-");
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+        for (LocalDateTime v = LocalDateTime.of(1999, 12, 31, 23, 59, 59); v.getYear() < 2001; v = v.plusSeconds(86399L)) {
+            String text = LocalDateTimeUtils.format(new StringBuilder(), v).toString();
+
+            Assert.assertEquals(text, formatter.format(v));
+            Assert.assertEquals(LocalDateTimeUtils.parse(text), v);
+            Assert.assertEquals(LocalDateTimeUtils.parse(LocalDateTimeUtils.formatIso(new StringBuilder(), v)), v);
+        }
+    }
+
+    /**
+     * エポックミリ秒との変換の動作を確認します。
+     */
+    @Test
+    public void testEpochMilli() {
+        ZoneId newYork = ZoneId.of("America/New_York");
+        LocalDateTime gap = LocalDateTime.of(2017, 3, 12, 2, 30);
+        LocalDateTime overlap = LocalDateTime.of(2017, 11, 5, 1, 30);
+
+        Assert.assertEquals(LocalDateTimeUtils.toEpochMilli(gap, newYork, -1L), ZonedDateTime.of(gap, newYork).toInstant().toEpochMilli());
+        Assert.assertEquals(LocalDateTimeUtils.toEpochMilli(overlap, newYork, -1L), ZonedDateTime.of(overlap, newYork).toInstant().toEpochMilli());
+        Assert.assertEquals(LocalDateTimeUtils.toEpochMilli(null, newYork, -1L), -1L);
+        Assert.assertEquals(LocalDateTimeUtils.toEpochMilli(LocalDateTime.MAX, newYork, -1L), -1L);
+        Assert.assertEquals(LocalDateTimeUtils.from(-1L, ZoneOffset.UTC), LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999000000));
+        Assert.assertEquals(LocalDateTimeUtils.from(1489303800000L, newYork), LocalDateTime.of(2017, 3, 12, 3, 30));
+    }
+
+    /**
+     * 配列を対象とした変換の動作を確認します。
+     */
+    @Test
+    public void testEpochMillis() {
+        ZoneId zoneId = ZoneId.of("Europe/London");
+        int length = LocalDateTimeUtils.PARALLEL_THRESHOLD * 2;
+        LocalDateTime[] values = new LocalDateTime[length];
+
+        for (int i = 0; i < length; i++) {
+            values[i] = (i % 1000 == 0) ? null : LocalDateTime.of(2016, 1, 1, 0, 0).plusMinutes(97L * i).withNano(i % 7 * 1000000);
+        }
+
+        long[] millis = LocalDateTimeUtils.toEpochMillis(values, zoneId, Long.MIN_VALUE);
+        LocalDateTime[] locals = LocalDateTimeUtils.fromEpochMillis(millis, zoneId);
+        ZonedDateTime[] zoned = ZonedDateTimeUtils.from(values, zoneId, null);
+
+        for (int i = 0; i < length; i++) {
+            if (values[i] == null) {
+                Assert.assertEquals(millis[i], Long.MIN_VALUE);
+                Assert.assertNull(zoned[i]);
+
+                continue;
+            }
+
+            ZonedDateTime expected = ZonedDateTime.of(values[i], zoneId);
+
+            Assert.assertEquals(millis[i], expected.toInstant().toEpochMilli());
+            Assert.assertEquals(locals[i], expected.toLocalDateTime());
+            Assert.assertEquals(zoned[i], expected);
+        }
+
+        Assert.assertArrayEquals(ZonedDateTimeUtils.toEpochMillis(zoned, Long.MIN_VALUE), millis);
+        Assert.assertArrayEquals(ZonedDateTimeUtils.fromEpochMillis(new long[]{0L}, zoneId), new ZonedDateTime[]{ZonedDateTime.of(1970, 1, 1, 1, 0, 0, 0, zoneId)});
+        Assert.assertArrayEquals(LocalDateTimeUtils.from(new ZonedDateTime[]{null, zoned[1]}, LocalDateTime.MIN), new LocalDateTime[]{LocalDateTime.MIN, values[1]});
+        Assert.assertNull(LocalDateTimeUtils.toEpochMillis(null, zoneId, 0L));
+    }
+
+}
@@ -4,6 +4,12 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
 
 public class LongUtilsTests {
 
@@ -44,4 +50,132 @@ public class LongUtilsTests {
         Assert.assertEquals(LongUtils.nullOrDefault(new BigInteger("1"), 2L), Long.valueOf(1));
     }
 
+    /**
+     * parseLong の動作を確認します。
+     */
+    @Test
+    public void testParseLong() {
+        Assert.assertEquals(LongUtils.parseLong(null, 1L), 1L);
+        Assert.assertEquals(LongUtils.parseLong("", 1L), 1L);
+        Assert.assertEquals(LongUtils.parseLong("-", 1L), 1L);
+        Assert.assertEquals(LongUtils.parseLong("+", 1L), 1L);
+        Assert.assertEquals(LongUtils.parseLong("+12", 1L), 12L);
+        Assert.assertEquals(LongUtils.parseLong("-12", 1L), -12L);
+        Assert.assertEquals(LongUtils.parseLong(" 12", 1L), 1L);
+        Assert.assertEquals(LongUtils.parseLong("1.0", 1L), 1L);
+        Assert.assertEquals(LongUtils.parseLong("１２", 1L), 12L);
+        Assert.assertEquals(LongUtils.parseLong(String.valueOf(Long.MAX_VALUE), 1L), Long.MAX_VALUE);
+        Assert.assertEquals(LongUtils.parseLong(String.valueOf(Long.MIN_VALUE), 1L), Long.MIN_VALUE);
+        Assert.assertEquals(LongUtils.parseLong(new java.math.BigInteger(String.valueOf(Long.MAX_VALUE)).add(java.math.BigInteger.ONE).toString(), 1L), 1L);
+        Assert.assertEquals(LongUtils.parseLong(new java.math.BigInteger(String.valueOf(Long.MIN_VALUE)).subtract(java.math.BigInteger.ONE).toString(), 1L), 1L);
+
+        StringBuilder s = new StringBuilder("id=123;n=-45;x=");
+
+        Assert.assertEquals(LongUtils.parseLong(s, 3, 6), 123L);
+        Assert.assertEquals(LongUtils.parseLong(s, 9, 12, 1L), -45L);
+        Assert.assertEquals(LongUtils.parseLong(s, 15, 15, 1L), 1L);
+        Assert.assertEquals(LongUtils.parseLong(s, 0, 6, 1L), 1L);
+    }
+
+    /**
+     * parseLong で範囲外を指定した場合の動作を確認します。
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testParseLongOutOfRange() {
+        LongUtils.parseLong("123", 2, 4);
+    }
+
+    /**
+     * Column の動作を確認します。
+     */
+    @Test
+    public void testColumn() {
+        LongUtils.Column column = LongUtils.Column.from(Arrays.<Long>asList(5L, null, -3L, 7L, null));
+
+        Assert.assertEquals(column.size(), 5);
+        Assert.assertTrue(column.isNull(1));
+        Assert.assertEquals(column.get(0, -1L), 5L);
+        Assert.assertEquals(column.get(1, -1L), -1L);
+        Assert.assertNull(column.getOrNull(4));
+        Assert.assertEquals(column.countNonNull(), 3);
+        Assert.assertEquals(column.sum(0L), 9L);
+        Assert.assertEquals(column.min(0L), -3L);
+        Assert.assertEquals(column.max(0L), 7L);
+        Assert.assertEquals(column.average(0.0), 3.0, 0.0);
+        Assert.assertEquals(column.compare(1, 2), LongUtils.compare(null, -3L));
+        Assert.assertEquals(column.compare(3, 0), LongUtils.compare(7L, 5L));
+        Assert.assertEquals(column.compare(1, 4), 0);
+
+        column.set(1, 1L);
+        column.setNull(0);
+        column.sort();
+
+        Assert.assertEquals(column.toList(), Arrays.<Long>asList(null, null, -3L, 1L, 7L));
+
+        LongUtils.Column empty = new LongUtils.Column(0);
+
+        empty.addNull();
+
+        Assert.assertEquals(empty.min(42L), 42L);
+        Assert.assertEquals(empty.average(-1.0), -1.0, 0.0);
+    }
+
+    /**
+     * 多くの要素を持つ Column の並べ替えの動作を確認します。
+     */
+    @Test
+    public void testColumnSort() {
+        Random random = new Random(1);
+        List<Long> expected = new ArrayList<>();
+        LongUtils.Column column = new LongUtils.Column();
+
+        for (int i = 0; i < 1000; i++) {
+            Long value = (random.nextInt(5) == 0) ? null : (long) random.nextInt(2000000) - 1000000L;
+
+            expected.add(value);
+            column.add(value);
+        }
+
+        long sum = 0L;
+
+        for (Long value : expected) {
+            sum += (value != null) ? value : 0;
+        }
+
+        Assert.assertEquals(column.sum(Long.MIN_VALUE), sum);
+
+        Collections.sort(expected, new Comparator<Long>() {
+            @Override
+            public int compare(Long a, Long b) {
+                return LongUtils.compare(a, b);
+            }
+        });
+        column.sort();
+
+        Assert.assertEquals(column.toList(), expected);
+    }
+
+    /**
+     * 合計が long の範囲を超える場合の Column の動作を確認します。
+     */
+    @Test
+    public void testColumnOverflow() {
+        LongUtils.Column column = LongUtils.Column.from(Arrays.asList(Long.MAX_VALUE, null, Long.MAX_VALUE));
+
+        Assert.assertEquals(column.sum(-1L), -1L);
+        Assert.assertEquals(column.average(0.0), (double) Long.MAX_VALUE, 0.0);
+        Assert.assertEquals(LongUtils.Column.from(Arrays.asList(Long.MAX_VALUE, 1L, -1L)).sum(-1L), Long.MAX_VALUE);
+        Assert.assertEquals(LongUtils.Column.from(Arrays.asList(Long.MIN_VALUE, -1L, null, 1L)).sum(0L), Long.MIN_VALUE);
+        Assert.assertEquals(LongUtils.Column.from(Arrays.asList(Long.MIN_VALUE, -1L)).sum(99L), 99L);
+        Assert.assertEquals(LongUtils.Column.from(Arrays.asList(Long.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE, 1L)).sum(99L), -1L);
+    }
+
+    /**
+     * 範囲外の位置を指定した場合の Column の動作を確認します。
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testColumnOutOfRange() {
+        new LongUtils.Column().isNull(0);
+    }
+
 }
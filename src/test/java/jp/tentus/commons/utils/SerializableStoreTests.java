@@ -0,0 +1,113 @@
+package jp.tentus.commons.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+public class SerializableStoreTests {
+
+    /**
+     * 追記と読み込みの動作を確認します。
+     */
+    @Test
+    public void testAppend() throws IOException {
+        File file = File.createTempFile("store", ".bin");
+
+        try {
+            file.delete();
+
+            try (SerializableStore store = SerializableStore.open(file, null, 256)) {
+                for (int i = 0; i < 100; i++) {
+                    Assert.assertEquals(store.append("value" + i), i);
+                }
+
+                Assert.assertEquals(store.size(), 100);
+                Assert.assertEquals(store.<String>get(0), "value0");
+                Assert.assertEquals(store.<String>get(99), "value99");
+                Assert.assertNull(store.getOrNull(100));
+            }
+
+            try (SerializableStore store = SerializableStore.open(file)) {
+                Assert.assertEquals(store.size(), 100);
+                Assert.assertEquals(store.<String>get(42), "value42");
+                Assert.assertEquals(store.append("appended"), 100);
+                Assert.assertEquals(store.<String>get(100), "appended");
+            }
+
+            try (SerializableStore store = SerializableStore.open(file)) {
+                Assert.assertEquals(store.size(), 101);
+                Assert.assertEquals(store.<String>get(100), "appended");
+
+                try {
+                    store.append(new String(new char[1024]));
+                    Assert.fail();
+                } catch (IOException ex) {
+                    Assert.assertEquals(store.size(), 101);
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Codec を指定した場合の動作を確認します。
+     */
+    @Test
+    public void testCodec() throws IOException {
+        File file = File.createTempFile("store", ".bin");
+        SerializableUtils.Codec codec = SerializableUtils.codec().build();
+
+        try {
+            file.delete();
+
+            try (SerializableStore store = SerializableStore.open(file, codec)) {
+                store.append("Hello !!");
+                store.append(1L);
+            }
+
+            try (SerializableStore store = SerializableStore.open(file, codec)) {
+                Assert.assertEquals(store.size(), 2);
+                Assert.assertEquals(store.<String>get(0), "Hello !!");
+                Assert.assertEquals(store.<Long>get(1), Long.valueOf(1L));
+            }
+
+            try {
+                SerializableStore.open(file).close();
+                Assert.fail();
+            } catch (IOException ex) {
+                Assert.assertEquals(ex.getMessage(), "File was written with a Codec.");
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Java のシリアライズで書き込んだファイルを Codec を指定して開いた場合の動作を確認します。
+     */
+    @Test
+    public void testCodecMismatch() throws IOException {
+        File file = File.createTempFile("store", ".bin");
+
+        try {
+            file.delete();
+
+            try (SerializableStore store = SerializableStore.open(file)) {
+                store.append("Hello !!");
+            }
+
+            try {
+                SerializableStore.open(file, SerializableUtils.codec().build()).close();
+                Assert.fail();
+            } catch (IOException ex) {
+                Assert.assertEquals(ex.getMessage(), "File was written with Java serialization.");
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+}
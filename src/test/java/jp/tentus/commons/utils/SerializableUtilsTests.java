@@ -0,0 +1,495 @@
+package jp.tentus.commons.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+public class SerializableUtilsTests {
+
+    /**
+     * to と from の動作を確認します。
+     */
+    @Test
+    public void testTo() throws IOException {
+        Sample sample = new Sample("Hello !!", 1);
+
+        Assert.assertEquals(SerializableUtils.<Sample>from(SerializableUtils.to(sample)), sample);
+        Assert.assertEquals(SerializableUtils.<Sample>from(SerializableUtils.to(sample)), sample);
+
+        ArrayList<Sample> large = new ArrayList<>();
+
+        for (int i = 0; i < 10000; i++) {
+            large.add(new Sample("value" + i, i));
+        }
+
+        Assert.assertEquals(SerializableUtils.<ArrayList<Sample>>from(SerializableUtils.to(large)), large);
+        Assert.assertEquals(SerializableUtils.<Sample>from(SerializableUtils.to(sample)), sample);
+    }
+
+    /**
+     * OutputStream と ByteBuffer へ書き込む to の動作を確認します。
+     */
+    @Test
+    public void testToTarget() throws IOException {
+        Sample sample = new Sample("Hello !!", 1);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        SerializableUtils.to(sample, stream);
+
+        Assert.assertEquals(SerializableUtils.<Sample>from(new ByteArrayInputStream(stream.toByteArray())), sample);
+
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        int size = SerializableUtils.to(sample, buffer);
+
+        Assert.assertEquals(buffer.position(), size);
+        Assert.assertEquals(SerializableUtils.<Sample>from(new ByteArrayInputStream(buffer.array(), 0, size)), sample);
+
+        ByteBuffer small = ByteBuffer.allocate(4);
+
+        try {
+            SerializableUtils.to(sample, small);
+            Assert.fail();
+        } catch (IOException ex) {
+            Assert.assertEquals(small.position(), 0);
+        }
+    }
+
+    /**
+     * シリアライズできない場合の toOrElse の動作を確認します。
+     */
+    @Test
+    public void testToOrElse() {
+        byte[] defaultValue = new byte[0];
+
+        Assert.assertSame(SerializableUtils.toOrElse(new Sample(new Object()), defaultValue), defaultValue);
+        Assert.assertNull(SerializableUtils.toOrNull(new Sample(new Object())));
+        Assert.assertNotNull(SerializableUtils.toOrNull(new Sample("Hello !!", 1)));
+    }
+
+    /**
+     * クラスの解決結果をキャッシュした状態での from の動作を確認します。
+     */
+    @Test
+    public void testFromCached() throws IOException {
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+
+        };
+        byte[] bytes = SerializableUtils.to(new Object[]{new Sample("Hello !!", 1), new int[]{1, 2}, int.class});
+
+        for (int i = 0; i < 3; i++) {
+            Object[] values = SerializableUtils.from(bytes, classLoader);
+
+            Assert.assertEquals(values[0], new Sample("Hello !!", 1));
+            Assert.assertArrayEquals((int[]) values[1], new int[]{1, 2});
+            Assert.assertEquals(values[2], int.class);
+        }
+
+        SerializableUtils.clearClassCache();
+
+        Assert.assertEquals(SerializableUtils.fromOrNull(bytes, classLoader).getClass(), Object[].class);
+    }
+
+    /**
+     * Codec で読み書きした場合の動作を確認します。
+     */
+    @Test
+    public void testCodec() throws IOException {
+        SerializableUtils.Codec codec = SerializableUtils.codec()
+                .register(1, Sample.class)
+                .register(2, Record.class)
+                .build();
+
+        Record record = new Record();
+
+        record.flag = true;
+        record.b = -1;
+        record.s = Short.MIN_VALUE;
+        record.c = 'あ';
+        record.i = Integer.MIN_VALUE;
+        record.l = Long.MAX_VALUE;
+        record.f = 1.5f;
+        record.d = -0.25;
+        record.text = "Hello, 世界 \uD83D\uDE00";
+        record.boxed = -42L;
+        record.bytes = new byte[]{1, 2, 3};
+        record.date = new Date(1507801476000L);
+        record.children = new ArrayList<>();
+        record.children.add(new Sample("child", 1));
+        record.children.add(null);
+        record.child = new Sample("child", 2);
+        record.ignored = 2;
+
+        byte[] bytes = codec.to(record);
+        Record decoded = codec.from(bytes);
+
+        Assert.assertTrue(decoded.flag);
+        Assert.assertEquals(decoded.b, -1);
+        Assert.assertEquals(decoded.s, Short.MIN_VALUE);
+        Assert.assertEquals(decoded.c, 'あ');
+        Assert.assertEquals(decoded.i, Integer.MIN_VALUE);
+        Assert.assertEquals(decoded.l, Long.MAX_VALUE);
+        Assert.assertEquals(decoded.f, 1.5f, 0);
+        Assert.assertEquals(decoded.d, -0.25, 0);
+        Assert.assertEquals(decoded.text, record.text);
+        Assert.assertEquals(decoded.boxed, record.boxed);
+        Assert.assertArrayEquals(decoded.bytes, record.bytes);
+        Assert.assertEquals(decoded.date, record.date);
+        Assert.assertEquals(decoded.children, record.children);
+        Assert.assertEquals(decoded.child, record.child);
+        Assert.assertNull(decoded.empty);
+        // transient なフィールドはコンストラクタで初期化された値のままになります。
+        Assert.assertEquals(decoded.ignored, 1);
+
+        Assert.assertTrue(bytes.length < SerializableUtils.to(record).length);
+        Assert.assertEquals(codec.<Sample>from(new ByteArrayInputStream(codec.to(record.child))), record.child);
+        Assert.assertEquals(codec.<String>from(codec.to("Hello !!")), "Hello !!");
+    }
+
+    /**
+     * Codec で読み書きできない場合の動作を確認します。
+     */
+    @Test
+    public void testCodecError() throws IOException {
+        SerializableUtils.Codec codec = SerializableUtils.codec().register(1, Sample.class).build();
+        SerializableUtils.Codec other = SerializableUtils.codec().register(2, Sample.class).build();
+        Sample sample = new Sample("Hello !!", 1);
+        byte[] bytes = codec.to(sample);
+
+        Assert.assertNull(other.fromOrNull(bytes));
+        Assert.assertNull(codec.fromOrNull(Arrays.copyOf(bytes, bytes.length - 1)));
+        Assert.assertNull(codec.fromOrNull(SerializableUtils.to(sample)));
+        Assert.assertSame(codec.fromOrElse(new byte[0], sample), sample);
+        Assert.assertNull(codec.toOrNull(new Sample(new Object())));
+
+        SerializableUtils.Codec nested = SerializableUtils.codec().register(1, Node.class).build();
+        Node node = new Node();
+
+        node.next = node;
+
+        Assert.assertNull(nested.toOrNull(node));
+    }
+
+    /**
+     * Codec に登録できない型の動作を確認します。
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testCodecRegisterDuplicate() {
+        SerializableUtils.codec().register(1, Sample.class).register(1, Node.class);
+    }
+
+    /**
+     * iterator の動作を確認します。
+     */
+    @Test
+    public void testIterator() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            for (int i = 0; i < 100; i++) {
+                out.writeObject(new Sample("event", i));
+
+                if (i % 10 == 0) {
+                    out.reset();
+                }
+            }
+
+            out.writeObject(null);
+        }
+
+        SerializableUtils.ObjectIterator<Sample> iterator = SerializableUtils.iterator(new ByteArrayInputStream(bytes.toByteArray()));
+        int count = 0;
+
+        while (iterator.hasNext()) {
+            Sample sample = iterator.next();
+
+            if (count < 100) {
+                Assert.assertEquals(sample, new Sample("event", count));
+            } else {
+                Assert.assertNull(sample);
+            }
+
+            count++;
+        }
+
+        Assert.assertEquals(count, 101);
+        Assert.assertFalse(iterator.hasNext());
+
+        Spliterator<Sample> spliterator = SerializableUtils.spliterator(new ByteArrayInputStream(bytes.toByteArray()));
+
+        Assert.assertEquals(StreamSupport.stream(spliterator, false).filter(Objects::nonNull).count(), 100L);
+        Assert.assertFalse(SerializableUtils.iterator(new ByteArrayInputStream(new byte[0])).hasNext());
+    }
+
+    /**
+     * 壊れたストリームを iterator で読み込んだ場合の動作を確認します。
+     */
+    @Test(expected = UncheckedIOException.class)
+    public void testIteratorBroken() {
+        SerializableUtils.iterator(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5})).hasNext();
+    }
+
+    /**
+     * オブジェクトごとに reset したストリームを iterator で読み込んだ場合の動作を確認します。
+     */
+    @Test
+    public void testIteratorResetAfterLast() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Sample shared = new Sample("shared", -1);
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            for (int i = 0; i < 3; i++) {
+                out.writeObject(new Sample("event", i));
+                out.writeObject(shared);
+                out.reset();
+                out.reset();
+            }
+        }
+
+        SerializableUtils.ObjectIterator<Sample> iterator = SerializableUtils.iterator(new ByteArrayInputStream(bytes.toByteArray()));
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(iterator.next(), new Sample("event", i));
+            Assert.assertEquals(iterator.next(), shared);
+        }
+
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * オブジェクトの途中で途切れたストリームを iterator で読み込んだ場合の動作を確認します。
+     */
+    @Test
+    public void testIteratorTruncated() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new Sample("event", 0));
+            out.writeObject(new Sample("event", 1));
+        }
+
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 3);
+        SerializableUtils.ObjectIterator<Sample> iterator = SerializableUtils.iterator(new ByteArrayInputStream(truncated));
+
+        Assert.assertEquals(iterator.next(), new Sample("event", 0));
+
+        try {
+            iterator.hasNext();
+            Assert.fail();
+        } catch (UncheckedIOException ex) {
+            Assert.assertTrue(ex.getCause() instanceof EOFException);
+        }
+
+        Assert.assertFalse(iterator.hasNext());
+
+        try {
+            SerializableUtils.iterator(new ByteArrayInputStream(truncated, 0, 2)).hasNext();
+            Assert.fail();
+        } catch (UncheckedIOException ex) {
+            Assert.assertTrue(ex.getCause() instanceof EOFException);
+        }
+    }
+
+    /**
+     * fromAllOrElse の動作を確認します。
+     */
+    @Test
+    public void testFromAll() throws IOException {
+        List<byte[]> values = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            values.add((i % 100 == 0) ? new byte[]{1, 2, 3} : SerializableUtils.to(new Sample("value", i)));
+        }
+
+        values.add(null);
+
+        Sample defaultValue = new Sample("default", -1);
+        List<Sample> results = SerializableUtils.fromAllOrElse(values, defaultValue);
+
+        Assert.assertEquals(results.size(), 1001);
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(results.get(i), (i % 100 == 0) ? defaultValue : new Sample("value", i));
+        }
+
+        Assert.assertSame(results.get(1000), defaultValue);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Sample> pooled = SerializableUtils.fromAllOrElse(values, getClass().getClassLoader(), null, executor);
+
+            Assert.assertNull(pooled.get(0));
+            Assert.assertEquals(pooled.get(1), new Sample("value", 1));
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertTrue(SerializableUtils.fromAllOrNull(Collections.<byte[]>emptyList()).isEmpty());
+    }
+
+    /**
+     * Executor のスレッドから同じ Executor を指定して fromAllOrElse を呼び出した場合に、完了する事を確認します。
+     */
+    @Test
+    public void testFromAllInsideExecutor() throws Exception {
+        final List<byte[]> values = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            values.add(SerializableUtils.to(new Sample("value", i)));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(1);
+
+        try {
+            Future<List<Sample>> future = executor.submit(new Callable<List<Sample>>() {
+                @Override
+                public List<Sample> call() {
+                    return SerializableUtils.fromAllOrElse(values, getClass().getClassLoader(), null, executor);
+                }
+            });
+
+            List<Sample> results = future.get(30, TimeUnit.SECONDS);
+
+            Assert.assertEquals(results.size(), 1000);
+            Assert.assertEquals(results.get(999), new Sample("value", 999));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * readObject が例外を送出する要素を fromAllOrElse で読み込んだ場合の動作を確認します。
+     */
+    @Test
+    public void testFromAllFailingReadObject() throws Exception {
+        List<byte[]> values = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            values.add(SerializableUtils.to((i % 3 == 0) ? new Failing() : new Sample("value", i)));
+        }
+
+        Sample defaultValue = new Sample("default", -1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Serializable> results = SerializableUtils.fromAllOrElse(values, getClass().getClassLoader(), (Serializable) defaultValue, executor);
+
+            Assert.assertEquals(results.size(), 1000);
+
+            for (int i = 0; i < 1000; i++) {
+                Assert.assertEquals(results.get(i), (i % 3 == 0) ? defaultValue : new Sample("value", i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    static class Failing implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+
+            throw new IllegalStateException("Failed to read.");
+        }
+
+    }
+
+    static class Record implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        boolean flag;
+
+        byte b;
+
+        short s;
+
+        char c;
+
+        int i;
+
+        long l;
+
+        float f;
+
+        double d;
+
+        String text;
+
+        Long boxed;
+
+        byte[] bytes;
+
+        Date date;
+
+        ArrayList<Sample> children;
+
+        Sample child;
+
+        Object empty;
+
+        transient int ignored = 1;
+
+    }
+
+    static class Node implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        Node next;
+
+    }
+
+    static class Sample implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String name;
+
+        private int value;
+
+        private Object attachment;
+
+        Sample() {
+
+        }
+
+        Sample(String name, int value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        Sample(Object attachment) {
+            this.attachment = attachment;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Sample)) {
+                return false;
+            }
+
+            Sample other = (Sample) obj;
+
+            return this.value == other.value && this.name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.name.hashCode() * 31 + this.value;
+        }
+
+    }
+
+}
@@ -3,6 +3,10 @@ package jp.tentus.commons.utils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class StringBuilderUtilsTests {
@@ -26,6 +30,84 @@ public class StringBuilderUtilsTests {
         Assert.assertEquals(sb1.toString(), "Hello !! World !!");
     }
 
+    /**
+     * 区切り文字列を指定した join メソッドの動作を確認します。
+     */
+    @Test
+    public void testJoinWithSeparator() throws IOException {
+        Assert.assertEquals(StringBuilderUtils.joinWith(".", "jp", "tentus", null).toString(), "jp.tentus.null");
+        Assert.assertEquals(StringBuilderUtils.joinWith(".").toString(), "");
+        Assert.assertEquals(StringBuilderUtils.join(new StringBuilder("<"), ", ", "a", "b").append('>').toString(), "<a, b>");
+
+        StringWriter writer = new StringWriter();
+
+        Assert.assertSame(StringBuilderUtils.join(writer, "|", "a", new StringBuilder("b"), "c"), writer);
+        Assert.assertEquals(writer.toString(), "a|b|c");
+
+        writer = new StringWriter();
+
+        StringBuilderUtils.join(writer, "|", Arrays.asList("x", "y"));
+
+        Assert.assertEquals(writer.toString(), "x|y");
+    }
+
+    /**
+     * acquire, release メソッドの動作を確認します。
+     */
+    @Test
+    public void testAcquire() {
+        StringBuilder builder = StringBuilderUtils.acquire();
+
+        builder.append("Hello !!");
+
+        StringBuilder nested = StringBuilderUtils.acquire();
+
+        Assert.assertNotSame(nested, builder);
+        Assert.assertEquals(nested.length(), 0);
+        Assert.assertEquals(StringBuilderUtils.toStringAndRelease(builder), "Hello !!");
+
+        StringBuilder reused = StringBuilderUtils.acquire();
+
+        Assert.assertSame(reused, builder);
+        Assert.assertEquals(reused.length(), 0);
+
+        StringBuilderUtils.release(reused);
+        StringBuilderUtils.release(nested);
+
+        StringBuilder large = StringBuilderUtils.acquire();
+        StringBuilder other = StringBuilderUtils.acquire();
+
+        large.setLength(StringBuilderUtils.MAX_RETAINED_CAPACITY + 1);
+
+        StringBuilderUtils.release(large);
+        StringBuilderUtils.release(other);
+
+        Assert.assertSame(StringBuilderUtils.acquire(), other);
+        Assert.assertNotSame(StringBuilderUtils.acquire(), large);
+    }
+
+    /**
+     * 同じ StringBuilder を二重に返却した場合の release の動作を確認します。
+     */
+    @Test
+    public void testReleaseTwice() {
+        StringBuilder builder = StringBuilderUtils.acquire();
+
+        builder.append("Hello !!");
+
+        StringBuilderUtils.release(builder);
+        StringBuilderUtils.release(builder);
+
+        StringBuilder first = StringBuilderUtils.acquire();
+        StringBuilder second = StringBuilderUtils.acquire();
+
+        Assert.assertSame(first, builder);
+        Assert.assertNotSame(second, builder);
+
+        StringBuilderUtils.release(second);
+        StringBuilderUtils.release(first);
+    }
+
     /**
      * splitNewArrayList メソッドの動作を確認します。
      */
@@ -66,4 +148,99 @@ public class StringBuilderUtilsTests {
         );
     }
 
+    /**
+     * split メソッドの動作を確認します。
+     */
+    @Test
+    public void testSplit() {
+        StringBuilder s = new StringBuilder("AAAAA|BBBBB||DDDDD|");
+        List<String> list = new ArrayList<>();
+
+        int count = StringBuilderUtils.split(s, '|', (source, start, end) -> list.add(source.subSequence(start, end).toString()));
+
+        Assert.assertEquals(count, 5);
+        Assert.assertEquals(list, StringBuilderUtils.splitNewArrayList(s, '|'));
+    }
+
+    /**
+     * cursor メソッドの動作を確認します。
+     */
+    @Test
+    public void testCursor() {
+        StringBuilder s = new StringBuilder("id|123|-45||");
+        StringBuilderUtils.SplitCursor cursor = StringBuilderUtils.cursor(s, '|');
+
+        Assert.assertTrue(cursor.next());
+        Assert.assertTrue(cursor.contentEquals("id"));
+        Assert.assertTrue(cursor.next());
+        Assert.assertEquals(IntegerUtils.parseInt(cursor, 0, cursor.length(), 0), 123);
+        Assert.assertTrue(cursor.next());
+        Assert.assertEquals(cursor.start(), 7);
+        Assert.assertEquals(cursor.end(), 10);
+        Assert.assertEquals(cursor.toString(), "-45");
+        Assert.assertTrue(cursor.next());
+        Assert.assertEquals(cursor.length(), 0);
+        Assert.assertTrue(cursor.next());
+        Assert.assertEquals(cursor.length(), 0);
+        Assert.assertFalse(cursor.next());
+
+        List<String> list = new ArrayList<>();
+
+        cursor.reset(new StringBuilder("AAAAA||BBBBB||CCCCC||"), "||");
+
+        while (cursor.next()) {
+            list.add(cursor.toString());
+        }
+
+        Assert.assertArrayEquals(list.toArray(new String[0]), new String[]{"AAAAA", "BBBBB", "CCCCC", ""});
+    }
+
+    /**
+     * 複数のセパレーターを交互に使用した場合に、コンパイル済みのものが再利用される事を確認します。
+     */
+    @Test
+    public void testSeparatorCached() {
+        StringBuilderUtils.Separator comma = StringBuilderUtils.Separator.cached(", ");
+        StringBuilderUtils.Separator equal = StringBuilderUtils.Separator.cached(" = ");
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertSame(StringBuilderUtils.Separator.cached(", "), comma);
+            Assert.assertSame(StringBuilderUtils.Separator.cached(" = "), equal);
+        }
+
+        Assert.assertArrayEquals(StringBuilderUtils.splitNewArrayList(new StringBuilder("a, b = c"), ", ").toArray(new String[0]), new String[]{"a", "b = c"});
+        Assert.assertArrayEquals(StringBuilderUtils.splitNewArrayList(new StringBuilder("a, b = c"), " = ").toArray(new String[0]), new String[]{"a, b", "c"});
+    }
+
+    /**
+     * Separator を使用した splitNewArrayList メソッドの動作を確認します。
+     */
+    @Test
+    public void testSplitNewArrayListSeparator() {
+        StringBuilderUtils.Separator separator = StringBuilderUtils.Separator.of("\r\n--boundary");
+
+        Assert.assertEquals(separator.indexOf("abc\r\n--boundar\r\n--boundary", 0), 14);
+        Assert.assertEquals(separator.indexOf("abc", 0), -1);
+        Assert.assertArrayEquals(
+                StringBuilderUtils.splitNewArrayList(new StringBuilder("A\r\n--boundaryB\r\n--boundary\r\n--boundary"), separator).toArray(new String[0]),
+                new String[]{"A", "B", "", ""}
+        );
+        Assert.assertArrayEquals(
+                StringBuilderUtils.splitNewArrayList(new StringBuilder("aaaa"), "aa").toArray(new String[0]),
+                new String[]{"", "", ""}
+        );
+        Assert.assertArrayEquals(
+                StringBuilderUtils.splitNewArrayList(new StringBuilder("あいうあいう"), "いう").toArray(new String[0]),
+                new String[]{"あ", "あ", ""}
+        );
+    }
+
+    /**
+     * 空のセパレーターを指定した場合の動作を確認します。
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSeparatorEmpty() {
+        StringBuilderUtils.Separator.of("");
+    }
+
 }
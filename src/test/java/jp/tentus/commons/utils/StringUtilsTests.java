@@ -3,6 +3,8 @@ package jp.tentus.commons.utils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Locale;
+
 public class StringUtilsTests {
 
     /**
@@ -17,6 +19,34 @@ public class StringUtilsTests {
         Assert.assertEquals(StringUtils.from(sb2), "こんにちは");
     }
 
+    /**
+     * Pool を使用した from メソッドの動作を確認します。
+     */
+    @Test
+    public void testFromPool() {
+        StringUtils.Pool pool = new StringUtils.Pool(16);
+        String first = StringUtils.from(new StringBuilder("status"), null, pool);
+
+        Assert.assertEquals(first, "status");
+        Assert.assertSame(StringUtils.from(new StringBuilder("status"), null, pool), first);
+        Assert.assertSame(pool.from("[status]", 1, 7), first);
+        Assert.assertEquals(StringUtils.from(null, "a", pool), "a");
+        Assert.assertEquals(StringUtils.from(new StringBuilder("x"), null, null), "x");
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(pool.from(new StringBuilder("value").append(i)), "value" + i);
+        }
+
+        StringUtils.Pool shortPool = new StringUtils.Pool(16, 4);
+        String longValue = shortPool.from(new StringBuilder("abcde"));
+
+        Assert.assertNotSame(shortPool.from(new StringBuilder("abcde")), longValue);
+
+        pool.clear();
+
+        Assert.assertNotSame(pool.from(new StringBuilder("status")), first);
+    }
+
     /**
      * isBlank, isNotBlank メソッドの動作を確認します。
      */
@@ -61,4 +91,40 @@ public class StringUtilsTests {
         Assert.assertEquals(StringUtils.toUpperCase(null, "A"), "A");
     }
 
+    /**
+     * ASCII 以外の文字を含む場合や、変換が不要な場合の toLowerCase, toUpperCase メソッドの動作を確認します。
+     */
+    @Test
+    public void testToLowerCaseAndToUpperCaseFastPath() {
+        String lower = "user_account_status";
+        String upper = "USER_ACCOUNT_STATUS";
+
+        Assert.assertSame(StringUtils.toLowerCase(lower), lower);
+        Assert.assertSame(StringUtils.toUpperCase(upper), upper);
+        Assert.assertEquals(StringUtils.toLowerCase("User_Account_Status"), lower);
+        Assert.assertEquals(StringUtils.toUpperCase("User_Account_Status"), upper);
+        Assert.assertEquals(StringUtils.toLowerCase("@[`{ÀÉ"), "@[`{àé");
+        Assert.assertEquals(StringUtils.toUpperCase("straße"), "STRASSE");
+        Assert.assertEquals(StringUtils.toUpperCase("title", new Locale("tr")), "TİTLE");
+        Assert.assertEquals(StringUtils.toLowerCase("TITLE", new Locale("tr")), "tıtle");
+    }
+
+    /**
+     * ASCII の制御文字や、StringBuilder を指定した場合の isBlank メソッドの動作を確認します。
+     */
+    @Test
+    public void testIsBlankCharacters() {
+        Assert.assertTrue(StringUtils.isBlank(null));
+        Assert.assertTrue(StringUtils.isBlank(""));
+        Assert.assertTrue(StringUtils.isBlank(" \t\n\u000B\f\r\u001C\u001F"));
+        Assert.assertFalse(StringUtils.isBlank("\u0000"));
+        Assert.assertFalse(StringUtils.isBlank("\u00A0"));
+        Assert.assertTrue(StringUtils.isBlank(new StringBuilder(" \u3000\t")));
+        Assert.assertFalse(StringUtils.isBlank(new StringBuilder(" \u3000x")));
+
+        for (char c = 0; c < 0x3100; c++) {
+            Assert.assertEquals(StringUtils.isBlank(String.valueOf(c)), Character.isWhitespace(c));
+        }
+    }
+
 }
@@ -0,0 +1,61 @@
+package jp.tentus.commons.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+public class TimeBucketTests {
+
+    /**
+     * startOf メソッドの動作を確認します。
+     */
+    @Test
+    public void testStartOf() {
+        ZoneId tokyo = ZoneId.of("Asia/Tokyo");
+        long value = ZonedDateTime.of(2017, 10, 12, 18, 44, 36, 123000000, tokyo).toInstant().toEpochMilli();
+
+        Assert.assertEquals(TimeBucket.MINUTE.startOf(value, tokyo), ZonedDateTime.of(2017, 10, 12, 18, 44, 0, 0, tokyo).toInstant().toEpochMilli());
+        Assert.assertEquals(TimeBucket.HOUR.startOf(value, tokyo), ZonedDateTime.of(2017, 10, 12, 18, 0, 0, 0, tokyo).toInstant().toEpochMilli());
+        Assert.assertEquals(TimeBucket.DAY.startOf(value, tokyo), ZonedDateTime.of(2017, 10, 12, 0, 0, 0, 0, tokyo).toInstant().toEpochMilli());
+        Assert.assertEquals(TimeBucket.WEEK.startOf(value, tokyo), ZonedDateTime.of(2017, 10, 9, 0, 0, 0, 0, tokyo).toInstant().toEpochMilli());
+        Assert.assertEquals(TimeBucket.MINUTE.startOf(-1L, ZoneId.of("UTC")), -60000L);
+    }
+
+    /**
+     * 夏時間の切り替えをまたいだ startOf メソッドの動作を確認します。
+     */
+    @Test
+    public void testStartOfTransitions() {
+        String[] zones = {"America/New_York", "America/Sao_Paulo", "Australia/Lord_Howe", "Asia/Kathmandu", "UTC"};
+
+        for (String zone : zones) {
+            ZoneId zoneId = ZoneId.of(zone);
+            long[] values = new long[20000];
+
+            for (int i = 0; i < values.length; i++) {
+                values[i] = 1451606400000L + i * 3151013L;
+            }
+
+            long[] days = new long[values.length];
+
+            TimeBucket.DAY.startOf(values, zoneId, days);
+
+            for (int i = 0; i < values.length; i++) {
+                ZonedDateTime value = ZonedDateTime.ofInstant(Instant.ofEpochMilli(values[i]), zoneId);
+                ZonedDateTime week = value.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).truncatedTo(ChronoUnit.DAYS);
+
+                Assert.assertEquals(TimeBucket.MINUTE.startOf(values[i], zoneId), value.truncatedTo(ChronoUnit.MINUTES).toInstant().toEpochMilli());
+                Assert.assertEquals(TimeBucket.HOUR.startOf(values[i], zoneId), value.truncatedTo(ChronoUnit.HOURS).toInstant().toEpochMilli());
+                Assert.assertEquals(days[i], value.truncatedTo(ChronoUnit.DAYS).toInstant().toEpochMilli());
+                Assert.assertEquals(TimeBucket.WEEK.startOf(values[i], zoneId), week.toInstant().toEpochMilli());
+            }
+        }
+    }
+
+}
@@ -3,6 +3,10 @@ package jp.tentus.commons.utils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.List;
+
 public class TypeUtilsTests {
 
     /**
@@ -33,6 +37,119 @@ public class TypeUtilsTests {
         Assert.assertEquals(sample2.value.getClass(), StringBuilder.class);
     }
 
+    /**
+     * make を繰り返し呼び出した際の動作を確認します。
+     */
+    @Test
+    public void testBuilderMakeRepeated() {
+        Object t1 = TypeUtils.of(Sample1.class).index(1).make();
+        Object t2 = TypeUtils.of(Sample1.class).index(1).make();
+
+        Assert.assertEquals(t2.getClass(), StringBuilder.class);
+        Assert.assertNotSame(t1, t2);
+    }
+
+    /**
+     * 型パラメーターの位置が範囲外の場合の動作を確認します。
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderIndexOutOfRange() {
+        TypeUtils.of(Sample1.class).index(2).make();
+    }
+
+    /**
+     * 初期化できない型の場合の動作を確認します。
+     */
+    @Test(expected = RuntimeException.class)
+    public void testBuilderNotInstantiable() {
+        TypeUtils.of(Sample4.class).make();
+    }
+
+    /**
+     * アクセスできないコンストラクタを持つ型の場合の動作を確認します。
+     */
+    @Test
+    public void testBuilderNotAccessible() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                TypeUtils.of(Sample3.class).make();
+                Assert.fail();
+            } catch (RuntimeException ex) {
+                Assert.assertEquals(ex.getMessage(), "Could not instantiate.");
+                Assert.assertTrue(ex.getCause() instanceof IllegalAccessException);
+            }
+        }
+    }
+
+    /**
+     * 階層の深いクラスで型パラメーターを解決した際の動作を確認します。
+     */
+    @Test
+    public void testGetTypeArguments() {
+        Assert.assertArrayEquals(TypeUtils.getTypeArguments(Deep.class, Base1.class), new Type[]{String.class, StringBuilder.class});
+        Assert.assertArrayEquals(TypeUtils.getTypeArguments(Deep.class, Middle.class), new Type[]{StringBuilder.class});
+        Assert.assertArrayEquals(TypeUtils.getTypeArguments(Deep.class, Handler.class), new Type[]{StringBuilder.class});
+        Assert.assertEquals(TypeUtils.getTypeArgumentClass(ListHandler.class, Handler.class, 0), List.class);
+        Assert.assertEquals(TypeUtils.getTypeArguments(ListHandler.class, Handler.class)[0].getTypeName(), "java.util.List<java.lang.String>");
+        Assert.assertTrue(TypeUtils.getTypeArguments(Middle.class, Base1.class)[1] instanceof TypeVariable);
+        Assert.assertNull(TypeUtils.getTypeArgumentClass(Middle.class, Base1.class, 1));
+        Assert.assertEquals(TypeUtils.getTypeArgumentClass(StringArrayHandler.class, Handler.class, 0), String[].class);
+        Assert.assertEquals(TypeUtils.getTypeArgumentClass(ListArrayHandler.class, Handler.class, 0), List[].class);
+        Assert.assertEquals(TypeUtils.getTypeArguments(ListArrayHandler.class, Handler.class)[0].getTypeName(), "java.util.List<java.lang.String>[]");
+    }
+
+    /**
+     * サブタイプではないクラスを指定した場合の動作を確認します。
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetTypeArgumentsNotSubtype() {
+        TypeUtils.getTypeArguments(Sample1.class, Base2.class);
+    }
+
+    /**
+     * 階層の深いクラスから Builder を使用した際の動作を確認します。
+     */
+    @Test
+    public void testBuilderDeep() {
+        Assert.assertEquals(TypeUtils.of(Deep.class).make().getClass(), StringBuilder.class);
+        Assert.assertEquals(TypeUtils.of(Deep.class).type(Base1.class).make().getClass(), String.class);
+        Assert.assertEquals(TypeUtils.of(Deep.class).type(Handler.class).make().getClass(), StringBuilder.class);
+        Assert.assertEquals(TypeUtils.of(Leaf.class).make().getClass(), StringBuilder.class);
+        Assert.assertEquals(new Leaf().value.getClass(), StringBuilder.class);
+    }
+
+    interface Handler<T> {
+
+    }
+
+    static class Middle<E> extends Base1<String, E> implements Handler<E> {
+
+    }
+
+    static class Deep extends Middle<StringBuilder> {
+
+    }
+
+    static class Leaf extends Sample2 {
+
+    }
+
+    static class ListHandler implements Handler<List<String>> {
+
+    }
+
+    static class ArrayHandler<E> implements Handler<E[]> {
+
+    }
+
+    static class StringArrayHandler extends ArrayHandler<String> {
+
+    }
+
+    static class ListArrayHandler extends ArrayHandler<List<String>> {
+
+    }
+
     static class Base1<T1, T2> {
 
     }
@@ -51,4 +168,20 @@ public class TypeUtilsTests {
 
     }
 
+    static class Sample3 extends Base2<PrivateValue> {
+
+    }
+
+    static class Sample4 extends Base1<Number, String> {
+
+    }
+
+    private static class PrivateValue {
+
+        private PrivateValue() {
+
+        }
+
+    }
+
 }
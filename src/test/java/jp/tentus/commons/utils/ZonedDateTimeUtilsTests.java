@@ -0,0 +1,160 @@
+package jp.tentus.commons.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneRules;
+import java.util.TimeZone;
+
+public class ZonedDateTimeUtilsTests {
+
+    /**
+     * getMaxDateTime, getMinDateTime メソッドの動作を確認します。
+     */
+    @Test
+    public void testSentinels() {
+        ZoneId tokyo = ZoneId.of("Asia/Tokyo");
+        ZoneId newYork = ZoneId.of("America/New_York");
+
+        Assert.assertEquals(ZonedDateTimeUtils.getMaxDateTime(tokyo), ZonedDateTime.of(3000, 12, 31, 23, 59, 59, 0, tokyo));
+        Assert.assertEquals(ZonedDateTimeUtils.getMinDateTime(newYork), ZonedDateTime.of(1900, 1, 1, 0, 0, 0, 0, newYork));
+        Assert.assertSame(ZonedDateTimeUtils.getMaxDateTime(tokyo), ZonedDateTimeUtils.getMaxDateTime(tokyo));
+        Assert.assertSame(ZonedDateTimeUtils.getMinDateTime(newYork), ZonedDateTimeUtils.getMinDateTime(ZoneId.of("America/New_York")));
+        Assert.assertSame(ZonedDateTimeUtils.getMaxDateTime(), ZonedDateTimeUtils.getMaxDateTime(ZonedDateTimeUtils.getDefaultZone()));
+    }
+
+    /**
+     * orEndDateTime, orStartDay などのメソッドの動作を確認します。
+     */
+    @Test
+    public void testOr() {
+        ZoneId zoneId = ZonedDateTimeUtils.getDefaultZone();
+        LocalDateTime dateTime = LocalDateTime.of(2017, 10, 12, 18, 44, 36);
+        LocalDate date = LocalDate.of(2017, 10, 12);
+
+        Assert.assertEquals(ZonedDateTimeUtils.orEndDateTime(dateTime), ZonedDateTime.of(dateTime, zoneId));
+        Assert.assertEquals(ZonedDateTimeUtils.orStartDateTime(dateTime), ZonedDateTime.of(dateTime, zoneId));
+        Assert.assertEquals(ZonedDateTimeUtils.orEndDay(date), date.atStartOfDay(zoneId));
+        Assert.assertEquals(ZonedDateTimeUtils.orStartDay(date), date.atStartOfDay(zoneId));
+        Assert.assertSame(ZonedDateTimeUtils.orEndDateTime(null), ZonedDateTimeUtils.getMaxDateTime());
+        Assert.assertSame(ZonedDateTimeUtils.orEndDay(null), ZonedDateTimeUtils.getMaxDateTime());
+        Assert.assertSame(ZonedDateTimeUtils.orStartDateTime(null), ZonedDateTimeUtils.getMinDateTime());
+        Assert.assertSame(ZonedDateTimeUtils.orStartDay(null), ZonedDateTimeUtils.getMinDateTime());
+    }
+
+    /**
+     * invalidateDefaultZone メソッドの動作を確認します。
+     */
+    @Test
+    public void testInvalidateDefaultZone() {
+        TimeZone original = TimeZone.getDefault();
+
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+            ZonedDateTimeUtils.invalidateDefaultZone();
+
+            Assert.assertEquals(ZonedDateTimeUtils.getDefaultZone(), ZoneId.of("Asia/Tokyo"));
+
+            TimeZone.setDefault(TimeZone.getTimeZone("Europe/Paris"));
+
+            Assert.assertEquals(ZonedDateTimeUtils.getDefaultZone(), ZoneId.of("Asia/Tokyo"));
+
+            ZonedDateTimeUtils.invalidateDefaultZone();
+
+            Assert.assertEquals(ZonedDateTimeUtils.getDefaultZone(), ZoneId.of("Europe/Paris"));
+            Assert.assertEquals(ZonedDateTimeUtils.getMaxDateTime().getZone(), ZoneId.of("Europe/Paris"));
+        } finally {
+            TimeZone.setDefault(original);
+            ZonedDateTimeUtils.invalidateDefaultZone();
+        }
+    }
+
+    /**
+     * parse メソッドの動作を確認します。
+     */
+    @Test
+    public void testParse() {
+        String[] values = {
+                "2017-10-12T18:44:36Z",
+                "2017-10-12T18:44:36.123+09:00",
+                "2017-10-12T18:44-05:30",
+                "2017-10-12T18:44:36+09:00[Asia/Tokyo]",
+                "2017-03-12T02:30:00-05:00[America/New_York]",
+                "2017-11-05T01:30:00-04:00[America/New_York]",
+                "2017-11-05T01:30:00-05:00[America/New_York]",
+        };
+
+        for (String value : values) {
+            Assert.assertEquals(ZonedDateTimeUtils.parse(value), ZonedDateTime.parse(value));
+        }
+
+        ZoneId tokyo = ZoneId.of("Asia/Tokyo");
+
+        Assert.assertEquals(ZonedDateTimeUtils.parse("2017-10-12T18:44:36[Asia/Tokyo]"), ZonedDateTime.of(2017, 10, 12, 18, 44, 36, 0, tokyo));
+        Assert.assertEquals(ZonedDateTimeUtils.parse("2017-10-12 18:44:36+0900"), ZonedDateTime.of(2017, 10, 12, 18, 44, 36, 0, ZoneOffset.ofHours(9)));
+        Assert.assertEquals(ZonedDateTimeUtils.parse("2017-10-12 18:44:36+09"), ZonedDateTime.of(2017, 10, 12, 18, 44, 36, 0, ZoneOffset.ofHours(9)));
+        Assert.assertEquals(ZonedDateTimeUtils.parse("2017-10-12 18:44:36"), ZonedDateTime.of(2017, 10, 12, 18, 44, 36, 0, ZonedDateTimeUtils.getDefaultZone()));
+
+        Assert.assertNull(ZonedDateTimeUtils.parse("2017-10-12T18:44:36+19:00"));
+        Assert.assertNull(ZonedDateTimeUtils.parse("2017-10-12T18:44:36+09:0"));
+        Assert.assertNull(ZonedDateTimeUtils.parse("2017-10-12T18:44:36[Unknown/Zone]"));
+        Assert.assertNull(ZonedDateTimeUtils.parse("2017-10-12T18:44:36 JST"));
+        Assert.assertNull(ZonedDateTimeUtils.parse("2017-10-12T18:44:36[]"));
+
+        ZonedDateTime defaultValue = ZonedDateTimeUtils.getMinDateTime();
+
+        Assert.assertSame(ZonedDateTimeUtils.parse(null, defaultValue), defaultValue);
+        Assert.assertSame(ZonedDateTimeUtils.parse("2017", defaultValue), defaultValue);
+    }
+
+    /**
+     * formatIso, format メソッドの動作を確認します。
+     */
+    @Test
+    public void testFormat() {
+        ZonedDateTime tokyo = ZonedDateTime.of(2017, 10, 12, 18, 44, 36, 0, ZoneId.of("Asia/Tokyo"));
+        ZonedDateTime utc = ZonedDateTime.of(2017, 10, 12, 9, 44, 0, 5000000, ZoneOffset.UTC);
+
+        Assert.assertEquals(ZonedDateTimeUtils.formatIso(new StringBuilder(), tokyo).toString(), "2017-10-12T18:44:36+09:00[Asia/Tokyo]");
+        Assert.assertEquals(ZonedDateTimeUtils.formatIso(new StringBuilder(), utc).toString(), "2017-10-12T09:44:00.005Z");
+        Assert.assertEquals(ZonedDateTimeUtils.format(new StringBuilder(), tokyo).toString(), "2017-10-12 18:44:36");
+        Assert.assertEquals(ZonedDateTimeUtils.formatIso(new StringBuilder(), null, "null").toString(), "null");
+
+        Assert.assertEquals(ZonedDateTimeUtils.parse(ZonedDateTimeUtils.formatIso(new StringBuilder(), tokyo)), tokyo);
+        Assert.assertEquals(ZonedDateTimeUtils.parse(ZonedDateTimeUtils.formatIso(new StringBuilder(), utc)), utc);
+    }
+
+    /**
+     * 夏時間の切り替えをまたいだ from, getOffset メソッドの動作を確認します。
+     */
+    @Test
+    public void testFromTransitions() {
+        String[] zones = {"America/New_York", "Europe/London", "Australia/Lord_Howe", "America/Sao_Paulo", "Asia/Tokyo", "UTC"};
+
+        for (String zone : zones) {
+            ZoneId zoneId = ZoneId.of(zone);
+            ZoneRules rules = zoneId.getRules();
+
+            for (LocalDateTime value = LocalDateTime.of(2016, 1, 1, 0, 0); value.getYear() < 2018; value = value.plusMinutes(15)) {
+                Assert.assertEquals(ZonedDateTimeUtils.from(value, zoneId, null), ZonedDateTime.of(value, zoneId));
+                Assert.assertEquals(ZonedDateTimeUtils.getOffset(value, zoneId), rules.getOffset(value));
+            }
+
+            for (long second = 1451606400L; second < 1514764800L; second += 900L) {
+                Assert.assertEquals(ZonedDateTimeUtils.transitions(zoneId).offsetOfInstant(second), rules.getOffset(Instant.ofEpochSecond(second)));
+            }
+        }
+
+        ZoneId newYork = ZoneId.of("America/New_York");
+
+        Assert.assertEquals(ZonedDateTimeUtils.from(LocalDateTime.of(1900, 1, 1, 0, 0), newYork, null), ZonedDateTime.of(1900, 1, 1, 0, 0, 0, 0, newYork));
+        Assert.assertEquals(ZonedDateTimeUtils.from(LocalDateTime.of(2100, 7, 1, 0, 0), newYork, null), ZonedDateTime.of(2100, 7, 1, 0, 0, 0, 0, newYork));
+    }
+
+}